@@ -0,0 +1,97 @@
+package benchmarks;
+
+import model.Candidate;
+import model.Election;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.CandidateRepositoryImpl;
+import repository.ElectionRepositoryImpl;
+import repository.StudentRepositoryImpl;
+import repository.VoteRepositoryImpl;
+import service.StudentServiceImpl;
+import utils.ConnectionPool;
+import utils.PoolConfig;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentService.castVote end to end against a real PostgreSQL with the schema from
+ * resources/scheme.sql loaded. Point it at a scratch database - every run adds an election,
+ * a candidate and a student per vote:
+ *
+ *   java -Dbench.db.url=jdbc:postgresql://localhost:5434/bench -Dbench.db.user=postgres \
+ *        -Dbench.db.password=secret -jar benchmarks.jar CastVoteBenchmark
+ *
+ * Each iteration casts VOTES_PER_ITERATION votes by students created before it starts,
+ * so the reported time per operation is one castVote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, batchSize = CastVoteBenchmark.VOTES_PER_ITERATION)
+@Measurement(iterations = 5, batchSize = CastVoteBenchmark.VOTES_PER_ITERATION)
+@Fork(1)
+public class CastVoteBenchmark {
+    static final int VOTES_PER_ITERATION = 2_000;
+
+    private ConnectionPool pool;
+    private StudentRepositoryImpl studentRepository;
+    private StudentServiceImpl studentService;
+    private int candidateId;
+    private List<Student> voters;
+    private int nextVoter;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        pool = new ConnectionPool(new PoolConfig(
+                System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5434/waflya?reWriteBatchedInserts=true"),
+                System.getProperty("bench.db.user", "postgres"),
+                System.getProperty("bench.db.password", "waflya")));
+
+        ElectionRepositoryImpl electionRepository = new ElectionRepositoryImpl(pool);
+        Election election = electionRepository.create(new Election(0, "Benchmark " + System.currentTimeMillis(),
+                LocalDate.now(), LocalDate.now().plusDays(1), "2026-2027"));
+        Candidate candidate = new CandidateRepositoryImpl(pool, electionRepository).create(
+                new Candidate(0, "Benchmark Candidate", "Computer Science", 3, "Benchmarks", election));
+        candidateId = candidate.getId();
+
+        studentRepository = new StudentRepositoryImpl(pool);
+        studentService = new StudentServiceImpl(studentRepository, new VoteRepositoryImpl(pool));
+    }
+
+    @Setup(Level.Iteration)
+    public void createVoters() throws Exception {
+        String prefix = "B" + Long.toString(System.nanoTime(), 36) + "-";
+        List<Student> students = new ArrayList<>(VOTES_PER_ITERATION);
+        for (int i = 0; i < VOTES_PER_ITERATION; i++) {
+            students.add(new Student(0, "Bench Voter " + i, prefix + i, "Computer Science", 2));
+        }
+        voters = studentRepository.createAll(students);
+        nextVoter = 0;
+    }
+
+    @Benchmark
+    public Object castVote() throws Exception {
+        Student voter = voters.get(nextVoter++);
+        return studentService.castVote(voter.getId(), candidateId, "bench-" + voter.getStudentId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+import utils.interfaces.ConnectionProvider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC stand-in that answers every query with the same fixed rows, so repository
+ * read paths (mapResultSetTo* and list building) can be measured without PostgreSQL.
+ * Statement parameters are ignored and updates affect nothing.
+ */
+public class InMemoryDatabase implements ConnectionProvider {
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Object[][] rows;
+
+    public InMemoryDatabase(String[] columnLabels, Object[][] rows) {
+        for (int i = 0; i < columnLabels.length; i++) {
+            columns.put(columnLabels[i], i);
+        }
+        this.rows = rows;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, this::statement);
+                case "createStatement":
+                    return proxy(Statement.class, this::statement);
+                case "getAutoCommit":
+                    return true;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    private Object statement(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("executeQuery")) {
+            return proxy(ResultSet.class, new Rows());
+        }
+        return defaultValue(method);
+    }
+
+    private class Rows implements InvocationHandler {
+        private int cursor = -1;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor < rows.length;
+                case "getInt":
+                    return ((Number) column(args[0])).intValue();
+                case "getLong":
+                    return ((Number) column(args[0])).longValue();
+                case "getBoolean":
+                    return (Boolean) column(args[0]);
+                case "getString":
+                case "getDate":
+                case "getTimestamp":
+                case "getObject":
+                    return column(args[0]);
+                case "wasNull":
+                    return false;
+                default:
+                    return defaultValue(method);
+            }
+        }
+
+        private Object column(Object labelOrIndex) throws SQLException {
+            Integer index = labelOrIndex instanceof String
+                    ? columns.get(labelOrIndex)
+                    : Integer.valueOf((Integer) labelOrIndex - 1);
+            if (index == null) {
+                throw new SQLException("No such column: " + labelOrIndex);
+            }
+            return rows[cursor][index];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
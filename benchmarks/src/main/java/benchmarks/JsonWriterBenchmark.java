@@ -0,0 +1,157 @@
+package benchmarks;
+
+import controller.JsonResponses;
+import model.Candidate;
+import model.Election;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonWriter against naive String-building serialization of the model classes. Run with
+ * -prof gc to see the bytes allocated per serialized list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonWriterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Candidate> candidates;
+    private List<Student> students;
+    private ByteArrayOutputStream sink;
+    private JsonWriter reused;
+
+    @Setup
+    public void setUp() {
+        Election election = new Election(1, "President 2025", LocalDate.of(2025, 9, 1),
+                LocalDate.of(2025, 9, 30), "2025-2026");
+        candidates = new ArrayList<>(size);
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Candidate candidate = new Candidate(i, "Candidate \"" + i + "\"", "Computer Science", 3,
+                    "Better Wi-Fi – more coffee", election);
+            candidate.setVoteCount(i * 7);
+            candidates.add(candidate);
+            students.add(new Student(i, "Student " + i, "S" + (100_000 + i), "Mathematics", 2));
+        }
+
+        // Both sides must produce the same bytes, or the comparison means nothing
+        check("candidates", naiveCandidates(candidates), JsonResponses.candidates(candidates).toByteArray());
+        check("students", naiveStudents(students), JsonResponses.students(students).toByteArray());
+
+        sink = new ByteArrayOutputStream(size * 256);
+        reused = new JsonWriter(size * 256);
+    }
+
+    @Benchmark
+    public int naiveCandidates() {
+        return write(naiveCandidates(candidates));
+    }
+
+    @Benchmark
+    public int jsonWriterCandidates() throws IOException {
+        return write(candidatesInto(reused.reset(), candidates));
+    }
+
+    @Benchmark
+    public int naiveStudents() {
+        return write(naiveStudents(students));
+    }
+
+    @Benchmark
+    public int jsonWriterStudents() throws IOException {
+        return write(studentsInto(reused.reset(), students));
+    }
+
+    private int write(byte[] bytes) {
+        sink.reset();
+        sink.write(bytes, 0, bytes.length);
+        return sink.size();
+    }
+
+    private int write(JsonWriter json) throws IOException {
+        sink.reset();
+        json.writeTo(sink);
+        return sink.size();
+    }
+
+    private static JsonWriter candidatesInto(JsonWriter json, List<Candidate> candidates) {
+        json.beginArray();
+        for (Candidate candidate : candidates) {
+            JsonResponses.candidate(json, candidate);
+        }
+        return json.endArray();
+    }
+
+    private static JsonWriter studentsInto(JsonWriter json, List<Student> students) {
+        json.beginArray();
+        for (Student student : students) {
+            JsonResponses.student(json, student);
+        }
+        return json.endArray();
+    }
+
+    private static void check(String label, byte[] expected, byte[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException(label + " output differs:\n" +
+                    new String(expected, StandardCharsets.UTF_8) + "\n" + new String(actual, StandardCharsets.UTF_8));
+        }
+    }
+
+    // The baseline: one String per field, concatenated, then encoded
+
+    private static byte[] naiveCandidates(List<Candidate> candidates) {
+        String json = "[";
+        List<String> items = new ArrayList<>();
+        for (Candidate c : candidates) {
+            items.add(String.format("{\"id\":%d,\"name\":%s,\"major\":%s,\"yearOfStudy\":%d,\"campaign\":%s," +
+                            "\"electionId\":%d,\"voteCount\":%d}",
+                    c.getId(), quote(c.getName()), quote(c.getmajor()), c.getYearOfStudy(),
+                    quote(c.getCampaign()), c.getElection().getId(), c.getVoteCount()));
+        }
+        json += String.join(",", items) + "]";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] naiveStudents(List<Student> students) {
+        String json = "[";
+        List<String> items = new ArrayList<>();
+        for (Student s : students) {
+            items.add(String.format("{\"id\":%d,\"name\":%s,\"studentId\":%s,\"major\":%s,\"yearOfStudy\":%d," +
+                            "\"hasVoted\":%b}",
+                    s.getId(), quote(s.getName()), quote(s.getStudentId()), quote(s.getmajor()),
+                    s.getYearOfStudy(), s.isHasVoted()));
+        }
+        json += String.join(",", items) + "]";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for POST /votes against a running HttpApiServer.
+ *
+ * Usage: java -cp benchmarks.jar benchmarks.LoadTest <baseUrl> <candidateId> <firstStudentId> <votes> <concurrency>
+ * e.g.   java -cp benchmarks.jar benchmarks.LoadTest http://localhost:8080 1 1 10000 200
+ *
+ * Every vote uses a different student, so the students firstStudentId .. firstStudentId+votes-1
+ * must exist and not have voted in the candidate's election yet.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5) {
+            System.err.println("Usage: LoadTest <baseUrl> <candidateId> <firstStudentId> <votes> <concurrency>");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        int candidateId = Integer.parseInt(args[1]);
+        int firstStudentId = Integer.parseInt(args[2]);
+        int votes = Integer.parseInt(args[3]);
+        int concurrency = Integer.parseInt(args[4]);
+        if (votes < 1 || concurrency < 1) {
+            System.err.println("votes and concurrency must be positive");
+            System.exit(1);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long[] latencies = new long[votes];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < votes) {
+                        int studentId = firstStudentId + i;
+                        HttpRequest request = HttpRequest.newBuilder()
+                                .uri(URI.create(baseUrl + "/votes?studentId=" + studentId + "&candidateId=" + candidateId))
+                                .header("Idempotency-Key", "load-test-" + studentId + "-" + candidateId)
+                                .POST(HttpRequest.BodyPublishers.noBody())
+                                .build();
+
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        System.out.println("\n=== castVote LOAD TEST ===");
+        System.out.println("Requests:    " + votes + " (" + failures.get() + " failed)");
+        System.out.println("Concurrency: " + concurrency);
+        System.out.printf("Throughput:  %.1f req/s%n", votes / (elapsed / 1e9));
+        System.out.printf("p50:         %.2f ms%n", percentile(latencies, 0.50) / 1e6);
+        System.out.printf("p99:         %.2f ms%n", percentile(latencies, 0.99) / 1e6);
+        System.out.printf("max:         %.2f ms%n", latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
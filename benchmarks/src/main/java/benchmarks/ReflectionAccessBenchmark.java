@@ -0,0 +1,121 @@
+package benchmarks;
+
+import model.Candidate;
+import model.Election;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ClassMetadata;
+import utils.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading Candidate.voteCount directly, through the handles {@link ClassMetadata} caches, and
+ * the way ReflectionUtils used to: a fresh getDeclaredFields() and setAccessible per read.
+ * Handles are read both from fields, as generic code holds them, and from static finals.
+ * Also listing field names both ways.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReflectionAccessBenchmark {
+    // Handles in static finals are constants the JIT can inline through
+    private static final MethodHandle VOTE_COUNT_GETTER =
+            ClassMetadata.of(Candidate.class).getField("voteCount").getGetter();
+    private static final VarHandle VOTE_COUNT =
+            ClassMetadata.of(Candidate.class).getField("voteCount").getVarHandle();
+
+    private Candidate candidate;
+    private MethodHandle getter;
+    private VarHandle handle;
+    private Field field;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        Election election = new Election(1, "President", LocalDate.of(2026, 1, 10),
+                LocalDate.of(2026, 1, 19), "2026-2027");
+        candidate = new Candidate(1, "Candidate", "Computer Science", 3, "Campaign", election);
+        candidate.setVoteCount(42);
+
+        ClassMetadata.FieldAccessor accessor = ClassMetadata.of(Candidate.class).getField("voteCount");
+        getter = accessor.getGetter();
+        handle = accessor.getVarHandle();
+        field = Candidate.class.getDeclaredField("voteCount");
+        field.setAccessible(true);
+    }
+
+    @Benchmark
+    public int direct() {
+        return candidate.getVoteCount();
+    }
+
+    @Benchmark
+    public int varHandle() {
+        return (int) handle.get(candidate);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return (Object) getter.invokeExact((Object) candidate);
+    }
+
+    @Benchmark
+    public int constantVarHandle() {
+        return (int) VOTE_COUNT.get(candidate);
+    }
+
+    @Benchmark
+    public Object constantMethodHandle() throws Throwable {
+        return (Object) VOTE_COUNT_GETTER.invokeExact((Object) candidate);
+    }
+
+    @Benchmark
+    public Object metadataLookup() throws IllegalAccessException {
+        // Includes the ClassValue and field name lookups
+        return ClassMetadata.of(candidate.getClass()).getField("voteCount").get(candidate);
+    }
+
+    @Benchmark
+    public Object cachedField() throws IllegalAccessException {
+        return field.get(candidate);
+    }
+
+    @Benchmark
+    public Object uncachedField() throws IllegalAccessException {
+        for (Field declared : candidate.getClass().getDeclaredFields()) {
+            if (declared.getName().equals("voteCount")) {
+                declared.setAccessible(true);
+                return declared.get(candidate);
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String[] fieldNames() {
+        return ReflectionUtils.getFieldNames(Candidate.class);
+    }
+
+    @Benchmark
+    public String[] uncachedFieldNames() {
+        return Arrays.stream(Candidate.class.getDeclaredFields())
+                .map(Field::getName)
+                .toArray(String[]::new);
+    }
+}
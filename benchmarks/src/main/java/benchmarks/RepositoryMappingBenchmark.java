@@ -0,0 +1,81 @@
+package benchmarks;
+
+import exception.DatabaseOperationException;
+import model.Candidate;
+import model.Election;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.CandidateRepositoryImpl;
+import repository.ElectionRepositoryImpl;
+import repository.StudentRepositoryImpl;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAll() over in-memory result sets: measures the mapResultSetTo* mappers and list
+ * building without network or database time. Includes the JDBC proxy overhead of the stand-in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private StudentRepositoryImpl studentRepository;
+    private ElectionRepositoryImpl electionRepository;
+    private CandidateRepositoryImpl candidateRepository;
+
+    @Setup
+    public void setUp() {
+        Object[][] students = new Object[rows][];
+        Object[][] elections = new Object[rows][];
+        Object[][] candidates = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            students[i] = new Object[]{i, "Student " + i, "S" + i, "Computer Science", 2, i % 3 == 0};
+            elections[i] = new Object[]{i, "Election " + i, Date.valueOf("2026-01-10"),
+                    Date.valueOf("2026-01-19"), "2026-2027"};
+            // Candidates spread over 10 elections, as a real election has few candidates
+            candidates[i] = new Object[]{i, "Candidate " + i, "Computer Science", 3, "Campaign", i, i % 10};
+        }
+
+        studentRepository = new StudentRepositoryImpl(new InMemoryDatabase(
+                new String[]{"id", "name", "student_id", "major", "year_of_study", "has_voted"}, students));
+        electionRepository = new ElectionRepositoryImpl(new InMemoryDatabase(
+                new String[]{"id", "name", "start_date", "end_date", "academic_year"}, elections));
+        candidateRepository = new CandidateRepositoryImpl(new InMemoryDatabase(
+                new String[]{"id", "name", "major", "year_of_study", "campaign", "vote_count", "election_id"}, candidates),
+                electionRepository);
+    }
+
+    @Benchmark
+    public List<Student> mapStudents() throws DatabaseOperationException {
+        return studentRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Election> mapElections() throws DatabaseOperationException {
+        return electionRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Candidate> mapCandidates() throws DatabaseOperationException {
+        return candidateRepository.findAll();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import model.Candidate;
+import model.Election;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.SortingUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortingUtilsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Student> students;
+    private List<Candidate> candidates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Election election = new Election(1, "President", LocalDate.of(2026, 1, 10),
+                LocalDate.of(2026, 1, 19), "2026-2027");
+
+        students = new ArrayList<>(size);
+        candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = randomName(random);
+            Student student = new Student(i, name, "S" + i, "Computer Science", 1 + random.nextInt(4));
+            student.setHasVoted(random.nextInt(3) == 0);
+            students.add(student);
+
+            Candidate candidate = new Candidate(i, name, "Computer Science", 2 + random.nextInt(3),
+                    "Campaign", election);
+            candidate.setVoteCount(random.nextInt(size));
+            candidates.add(candidate);
+        }
+    }
+
+    @Benchmark
+    public List<Student> sortByName() {
+        // sortByName sorts in place, so each call gets a fresh copy
+        return SortingUtils.sortByName(new ArrayList<>(students));
+    }
+
+    @Benchmark
+    public List<Candidate> getTopNCandidates() {
+        return SortingUtils.getTopNCandidates(candidates, 10);
+    }
+
+    @Benchmark
+    public List<Student> filterEligibleVoters() {
+        return SortingUtils.filterEligibleVoters(students);
+    }
+
+    @Benchmark
+    public List<Student> sortByProperty() {
+        return SortingUtils.sortByProperty(students, Student::getStudentId);
+    }
+
+    private static String randomName(Random random) {
+        char[] name = new char[10];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = (char) ('a' + random.nextInt(26));
+        }
+        name[0] = Character.toUpperCase(name[0]);
+        return new String(name);
+    }
+}
@@ -0,0 +1,44 @@
+-- Tables as of the vote ledger; a database created from resources/scheme.sql already has them
+
+CREATE TABLE IF NOT EXISTS elections (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    academic_year VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS candidates (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    major VARCHAR(255) NOT NULL,
+    year_of_study INTEGER NOT NULL CHECK(year_of_study >= 2 AND year_of_study <= 4),
+    campaign TEXT,
+    election_id INTEGER NOT NULL,
+    vote_count INT DEFAULT 0,
+    FOREIGN KEY (election_id) REFERENCES elections(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS students (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    student_id VARCHAR(50) UNIQUE NOT NULL,
+    major VARCHAR(255) NOT NULL,
+    year_of_study INTEGER NOT NULL CHECK(year_of_study >= 1 AND year_of_study <= 4),
+    has_voted BOOLEAN DEFAULT FALSE
+);
+
+CREATE TABLE IF NOT EXISTS votes (
+    id BIGSERIAL PRIMARY KEY,
+    student_id INTEGER NOT NULL REFERENCES students(id) ON DELETE CASCADE,
+    candidate_id INTEGER NOT NULL REFERENCES candidates(id) ON DELETE CASCADE,
+    election_id INTEGER NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+    cast_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    idempotency_key VARCHAR(128) UNIQUE NOT NULL,
+    UNIQUE (student_id, election_id)
+);
+
+CREATE TABLE IF NOT EXISTS vote_flushes (
+    batch_id VARCHAR(64) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
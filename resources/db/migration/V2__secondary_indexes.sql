@@ -0,0 +1,18 @@
+-- Indexes behind the repository lookups that filter on anything but the primary key
+
+-- findBymajor, findBymajorPage and streamBymajor (major = ? [AND id > ?] ORDER BY id)
+CREATE INDEX IF NOT EXISTS students_major_id_idx ON students (major, id);
+
+-- findVotedStudents / findNonVotedStudents and their pages; each partial index only holds
+-- the rows its query can return, and the has_voted = false one shrinks as voting goes on
+CREATE INDEX IF NOT EXISTS students_voted_id_idx ON students (id) WHERE has_voted = true;
+CREATE INDEX IF NOT EXISTS students_not_voted_id_idx ON students (id) WHERE has_voted = false;
+
+-- findByElectionId (election_id = ? ORDER BY vote_count DESC) and the ON DELETE CASCADE from elections
+CREATE INDEX IF NOT EXISTS candidates_election_id_vote_count_idx ON candidates (election_id, vote_count DESC);
+
+-- CandidateRepository.findBymajor
+CREATE INDEX IF NOT EXISTS candidates_major_idx ON candidates (major);
+
+-- findByAcademicYear
+CREATE INDEX IF NOT EXISTS elections_academic_year_idx ON elections (academic_year);
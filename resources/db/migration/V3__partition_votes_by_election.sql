@@ -0,0 +1,49 @@
+-- Hash-partitions the vote ledger by election so per-election reads (tally, voter index,
+-- results) only touch one partition and no partition has to be created per election.
+--
+-- PostgreSQL requires the partition key in every unique constraint of a partitioned table,
+-- so the primary key becomes (election_id, id) and idempotency keys are unique per election.
+-- Existing votes keep their ids: the new table takes over the old id sequence.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'votes'::regclass) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE votes RENAME TO votes_unpartitioned;
+    ALTER TABLE votes_unpartitioned DROP CONSTRAINT votes_pkey;
+    ALTER TABLE votes_unpartitioned DROP CONSTRAINT votes_idempotency_key_key;
+    ALTER TABLE votes_unpartitioned DROP CONSTRAINT votes_student_id_election_id_key;
+
+    CREATE TABLE votes (
+        id BIGINT NOT NULL DEFAULT nextval('votes_id_seq'),
+        student_id INTEGER NOT NULL REFERENCES students(id) ON DELETE CASCADE,
+        candidate_id INTEGER NOT NULL REFERENCES candidates(id) ON DELETE CASCADE,
+        election_id INTEGER NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+        cast_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        idempotency_key VARCHAR(128) NOT NULL,
+        PRIMARY KEY (election_id, id),
+        UNIQUE (election_id, student_id),
+        UNIQUE (election_id, idempotency_key)
+    ) PARTITION BY HASH (election_id);
+
+    FOR i IN 0..7 LOOP
+        EXECUTE format('CREATE TABLE votes_p%s PARTITION OF votes FOR VALUES WITH (MODULUS 8, REMAINDER %s)', i, i);
+    END LOOP;
+
+    ALTER SEQUENCE votes_id_seq OWNED BY votes.id;
+
+    INSERT INTO votes (id, student_id, candidate_id, election_id, cast_at, idempotency_key)
+    SELECT id, student_id, candidate_id, election_id, cast_at, idempotency_key FROM votes_unpartitioned;
+
+    DROP TABLE votes_unpartitioned;
+END
+$$;
+
+-- tallyVotes (election_id = ? GROUP BY candidate_id) without touching the heap
+CREATE INDEX IF NOT EXISTS votes_election_id_candidate_id_idx ON votes (election_id, candidate_id, id);
+
+-- ON DELETE CASCADE from students and candidates
+CREATE INDEX IF NOT EXISTS votes_student_id_idx ON votes (student_id);
+CREATE INDEX IF NOT EXISTS votes_candidate_id_idx ON votes (candidate_id);
@@ -1,5 +1,11 @@
 -- University President Election Management System Database Schema
+--
+-- Resets the database to the baseline tables with sample data. The application's
+-- SchemaMigrator adds indexes and partitions on its next start (resources/db/migration).
 
+DROP TABLE IF EXISTS schema_migrations CASCADE;
+DROP TABLE IF EXISTS votes CASCADE;
+DROP TABLE IF EXISTS vote_flushes CASCADE;
 DROP TABLE IF EXISTS candidates CASCADE;
 DROP TABLE IF EXISTS students CASCADE;
 DROP TABLE IF EXISTS elections CASCADE;
@@ -13,13 +19,13 @@ CREATE TABLE elections (
 );
 
 CREATE TABLE candidates (
-     id SERIAL PRIMARY KEY,
+    id SERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     major VARCHAR(255) NOT NULL,
     year_of_study INTEGER NOT NULL CHECK(year_of_study >= 2 AND year_of_study <= 4),
     campaign TEXT,
     election_id INTEGER NOT NULL,
-    vote_count INT default 0;
+    vote_count INT default 0,
     FOREIGN KEY (election_id) REFERENCES elections(id) ON DELETE CASCADE
 );
 
@@ -32,8 +38,25 @@ CREATE TABLE students (
     has_voted BOOLEAN DEFAULT FALSE
 );
 
+-- Append-only ledger of every vote; candidates.vote_count is derived from it
+CREATE TABLE votes (
+    id BIGSERIAL PRIMARY KEY,
+    student_id INTEGER NOT NULL REFERENCES students(id) ON DELETE CASCADE,
+    candidate_id INTEGER NOT NULL REFERENCES candidates(id) ON DELETE CASCADE,
+    election_id INTEGER NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+    cast_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    idempotency_key VARCHAR(128) UNIQUE NOT NULL,
+    UNIQUE (student_id, election_id)
+);
+
+-- Vote count batches already applied by the write-behind VoteAggregator
+CREATE TABLE vote_flushes (
+    batch_id VARCHAR(64) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 INSERT INTO elections (name, start_date, end_date, academic_year) VALUES
-    ('University President Election 2026', '2026-01-10', '2026-01-19', '2026-2027'),
+    ('University President Election 2026', '2026-01-10', '2026-01-19', '2026-2027');
 
 INSERT INTO candidates (name, major, year_of_study, campaign, election_id) VALUES
     ('Zhubanazarova Ainaz', 'Computer Science', 3, 'Innovation and Student Welfare', 1),
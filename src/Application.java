@@ -0,0 +1,250 @@
+import controller.ElectionController;
+import controller.HttpApiServer;
+import exception.DatabaseOperationException;
+import model.Election;
+import repository.*;
+import repository.interfaces.CandidateRepository;
+import repository.interfaces.ElectionRepository;
+import repository.interfaces.StudentRepository;
+import repository.interfaces.VoteRepository;
+import service.*;
+import service.interfaces.*;
+import utils.*;
+import utils.interfaces.ConnectionProvider;
+
+import java.io.IOException;
+
+/**
+ * Builds the application's components on first use, each after the components it depends on.
+ *
+ * Nothing is created until it is asked for, so a command only pays for what it uses: the
+ * HTTP server never runs the demo's reflection, and the demo never binds a port. Getters are
+ * synchronized so components are built once even when first asked for concurrently.
+ */
+class Application {
+    private final AppConfig config;
+
+    private ConnectionProvider database;
+    private MetricsRegistry metrics;
+    private Resilience resilience;
+    private EntityCache<Integer, Election> electionCache;
+    private ElectionRepository electionRepository;
+    private CandidateRepository candidateRepository;
+    private StudentRepository studentRepository;
+    private VoteRepository voteRepository;
+    private ResultsEngine resultsEngine;
+    private ElectionService electionService;
+    private CandidateService candidateService;
+    private VoteAggregator voteAggregator;
+    private StudentService studentService;
+    private RosterImportService rosterImportService;
+    private ResultsPublisher resultsPublisher;
+    private RequestExecutor requestExecutor;
+    private ElectionController controller;
+
+    Application(AppConfig config) {
+        this.config = config;
+    }
+
+    AppConfig config() {
+        return config;
+    }
+
+    /**
+     * The shared connection pool, with the schema migrated before anything can use it.
+     */
+    synchronized ConnectionProvider database() throws DatabaseOperationException {
+        if (database == null) {
+            DatabaseConnection.configure(config);
+            ConnectionProvider provider = DatabaseConnection.getProvider();
+            new SchemaMigrator(provider).migrate();
+            database = provider;
+        }
+        return database;
+    }
+
+    synchronized MetricsRegistry metrics() {
+        if (metrics == null) {
+            metrics = MetricsRegistry.getDefault();
+            metrics.setSlowCallThresholdMillis(config.getSlowCallThresholdMillis());
+        }
+        return metrics;
+    }
+
+    // Every repository is wrapped to fail fast and retry reads while the database is failing
+    // over, and every repository and service to record call metrics
+    private synchronized Resilience resilience() {
+        if (resilience == null) {
+            resilience = new Resilience(new CircuitBreaker("db", 5, 5_000, metrics()), 3, 50, 1_000, metrics());
+        }
+        return resilience;
+    }
+
+    private <T> T protect(Class<T> type, T repository) {
+        return Instrumentation.instrument(type, resilience().protect(type, repository), metrics());
+    }
+
+    synchronized EntityCache<Integer, Election> electionCache() {
+        if (electionCache == null) {
+            electionCache = new EntityCache<>(config.getElectionCacheSize(), config.getElectionCacheTtlMillis());
+        }
+        return electionCache;
+    }
+
+    synchronized ElectionRepository electionRepository() throws DatabaseOperationException {
+        if (electionRepository == null) {
+            electionRepository = new CachingElectionRepository(
+                    protect(ElectionRepository.class, new ElectionRepositoryImpl(database())), electionCache());
+        }
+        return electionRepository;
+    }
+
+    synchronized CandidateRepository candidateRepository() throws DatabaseOperationException {
+        if (candidateRepository == null) {
+            candidateRepository = protect(CandidateRepository.class,
+                    new CandidateRepositoryImpl(database(), electionRepository()));
+        }
+        return candidateRepository;
+    }
+
+    synchronized StudentRepository studentRepository() throws DatabaseOperationException {
+        if (studentRepository == null) {
+            studentRepository = protect(StudentRepository.class, new StudentRepositoryImpl(database()));
+        }
+        return studentRepository;
+    }
+
+    synchronized VoteRepository voteRepository() throws DatabaseOperationException {
+        if (voteRepository == null) {
+            voteRepository = protect(VoteRepository.class, new VoteRepositoryImpl(database()));
+        }
+        return voteRepository;
+    }
+
+    synchronized ResultsEngine resultsEngine() throws DatabaseOperationException {
+        if (resultsEngine == null) {
+            resultsEngine = new ResultsEngine(candidateRepository(), voteRepository());
+        }
+        return resultsEngine;
+    }
+
+    synchronized ElectionService electionService() throws DatabaseOperationException {
+        if (electionService == null) {
+            electionService = Instrumentation.instrument(ElectionService.class,
+                    new ElectionServiceImpl(electionRepository(), voteRepository(), voteAggregator()), metrics());
+        }
+        return electionService;
+    }
+
+    synchronized CandidateService candidateService() throws DatabaseOperationException {
+        if (candidateService == null) {
+            candidateService = Instrumentation.instrument(CandidateService.class,
+                    new CandidateServiceImpl(candidateRepository(), resultsEngine()), metrics());
+        }
+        return candidateService;
+    }
+
+    /**
+     * The write-behind vote counter, recovered from the ledger before first use, or null when
+     * votes.writeBehind is off.
+     */
+    synchronized VoteAggregator voteAggregator() throws DatabaseOperationException {
+        if (voteAggregator == null && config.isVoteWriteBehind()) {
+            try {
+                VoteAggregator aggregator = new VoteAggregator(voteRepository(), config.getVoteJournalDir(),
+                        config.getVoteFlushIntervalMillis(), config.getVoteFlushThreshold());
+                aggregator.recover();
+                voteAggregator = aggregator;
+            } catch (IOException e) {
+                throw new DatabaseOperationException("Cannot open vote journal " + config.getVoteJournalDir() +
+                        ": " + e.getMessage(), e);
+            }
+        }
+        return voteAggregator;
+    }
+
+    /**
+     * Applies vote counts still waiting in the write-behind journal, if there is one.
+     */
+    synchronized void flushVotes() throws DatabaseOperationException {
+        if (voteAggregator != null) {
+            try {
+                voteAggregator.flush();
+            } catch (IOException e) {
+                throw new DatabaseOperationException("Error flushing vote counts: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    synchronized StudentService studentService() throws DatabaseOperationException {
+        if (studentService == null) {
+            studentService = Instrumentation.instrument(StudentService.class,
+                    new StudentServiceImpl(studentRepository(), voteRepository(), voteAggregator()), metrics());
+            studentService.addVoteListener(resultsEngine());
+        }
+        return studentService;
+    }
+
+    synchronized RosterImportService rosterImportService() throws DatabaseOperationException {
+        if (rosterImportService == null) {
+            rosterImportService = Instrumentation.instrument(RosterImportService.class,
+                    new RosterImportServiceImpl(studentRepository()), metrics());
+        }
+        return rosterImportService;
+    }
+
+    synchronized ResultsPublisher resultsPublisher() throws DatabaseOperationException {
+        if (resultsPublisher == null) {
+            resultsPublisher = new ResultsPublisher(resultsEngine(), config.getPublishIntervalMillis());
+        }
+        return resultsPublisher;
+    }
+
+    synchronized RequestExecutor requestExecutor() throws DatabaseOperationException {
+        if (requestExecutor == null) {
+            requestExecutor = new RequestExecutor(database(), config.getRequestTimeoutMillis());
+        }
+        return requestExecutor;
+    }
+
+    synchronized ElectionController controller() throws DatabaseOperationException {
+        if (controller == null) {
+            controller = new ElectionController(
+                    electionService(), candidateService(), studentService(), requestExecutor());
+        }
+        return controller;
+    }
+
+    HttpApiServer httpServer(int port) throws DatabaseOperationException, IOException {
+        return new HttpApiServer(port, electionService(), candidateService(), studentService(),
+                requestExecutor(), resultsPublisher(), metrics(), DatabaseConnection.getSlowQueryLog());
+    }
+
+    /**
+     * Applies reloadable settings from the configuration file to the components built so far.
+     */
+    ConfigReloader watchConfig() {
+        ConfigReloader reloader = new ConfigReloader(config);
+        reloader.addListener(DatabaseConnection::applyTuning);
+        reloader.addListener(reloaded -> {
+            synchronized (this) {
+                if (electionCache != null) {
+                    electionCache.setMaxSize(reloaded.getElectionCacheSize());
+                    electionCache.setTtlMillis(reloaded.getElectionCacheTtlMillis());
+                }
+                if (metrics != null) {
+                    metrics.setSlowCallThresholdMillis(reloaded.getSlowCallThresholdMillis());
+                }
+                if (resultsPublisher != null) {
+                    resultsPublisher.setIntervalMillis(reloaded.getPublishIntervalMillis());
+                }
+                if (requestExecutor != null) {
+                    requestExecutor.setTimeoutMillis(reloaded.getRequestTimeoutMillis());
+                    // Stays bounded by the pool size, which applyTuning has just changed
+                    requestExecutor.setMaxConcurrency(database.getMaxConnections());
+                }
+            }
+        });
+        return reloader;
+    }
+}
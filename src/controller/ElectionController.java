@@ -10,72 +10,99 @@ public class ElectionController {
     private final ElectionService electionService;
     private final CandidateService candidateService;
     private final StudentService studentService;
+    private final RequestExecutor requests;
 
     public ElectionController(ElectionService electionService,
                               CandidateService candidateService,
-                              StudentService studentService) {
+                              StudentService studentService,
+                              RequestExecutor requests) {
         this.electionService = electionService;
         this.candidateService = candidateService;
         this.studentService = studentService;
+        this.requests = requests;
     }
 
     // Election operations
     public void createElection(Election election) {
-        try {
-            Election created = electionService.createElection(election);
-            System.out.println("✓ Election created successfully: " + created.getName());
-        } catch (InvalidInputException | DatabaseOperationException e) {
-            System.err.println("✗ Error creating election: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                Election created = electionService.createElection(election);
+                System.out.println("✓ Election created successfully: " + created.getName());
+            } catch (InvalidInputException | DatabaseOperationException e) {
+                System.err.println("✗ Error creating election: " + e.getMessage());
+            }
+        });
     }
 
     public void getAllElections() {
-        try {
-            List<Election> elections = electionService.getAllElections();
-            System.out.println("\n=== ALL ELECTIONS ===");
-            elections.forEach(System.out::println); // Lambda
-        } catch (DatabaseOperationException e) {
-            System.err.println("✗ Error fetching elections: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                List<Election> elections = electionService.getAllElections();
+                System.out.println("\n=== ALL ELECTIONS ===");
+                elections.forEach(System.out::println); // Lambda
+            } catch (DatabaseOperationException e) {
+                System.err.println("✗ Error fetching elections: " + e.getMessage());
+            }
+        });
     }
 
     // Candidate operations
     public void createCandidate(Candidate candidate) {
-        try {
-            Candidate created = candidateService.createCandidate(candidate);
-            System.out.println("✓ Candidate created successfully: " + created.getName());
-        } catch (InvalidInputException | DatabaseOperationException e) {
-            System.err.println("✗ Error creating candidate: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                Candidate created = candidateService.createCandidate(candidate);
+                System.out.println("✓ Candidate created successfully: " + created.getName());
+            } catch (InvalidInputException | DatabaseOperationException e) {
+                System.err.println("✗ Error creating candidate: " + e.getMessage());
+            }
+        });
     }
 
     public void getAllCandidatesSorted() {
-        try {
-            List<Candidate> candidates = candidateService.getCandidatesSortedByVotes();
-            System.out.println("\n=== CANDIDATES (Sorted by Votes) ===");
-            candidates.forEach(c -> System.out.println(c.getName() + " - Votes: " + c.getVoteCount())); // Lambda
-        } catch (DatabaseOperationException e) {
-            System.err.println("✗ Error fetching candidates: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                List<Candidate> candidates = candidateService.getCandidatesSortedByVotes();
+                System.out.println("\n=== CANDIDATES (Sorted by Votes) ===");
+                candidates.forEach(c -> System.out.println(c.getName() + " - Votes: " + c.getVoteCount())); // Lambda
+            } catch (DatabaseOperationException e) {
+                System.err.println("✗ Error fetching candidates: " + e.getMessage());
+            }
+        });
+    }
+
+    public void displayLeaderboard(int electionId, int limit) {
+        execute(() -> {
+            try {
+                List<CandidateStanding> leaderboard = candidateService.getLeaderboard(electionId, limit);
+                System.out.println("\n=== LIVE RESULTS (Top " + limit + ") ===");
+                leaderboard.forEach(s -> System.out.println(s.getCandidateName() + " - Votes: " + s.getVotes())); // Lambda
+            } catch (InvalidInputException | DatabaseOperationException e) {
+                System.err.println("✗ Error fetching results: " + e.getMessage());
+            }
+        });
     }
 
     // Student operations
     public void createStudent(Student student) {
-        try {
-            Student created = studentService.createStudent(student);
-            System.out.println("✓ Student created successfully: " + created.getName());
-        } catch (InvalidInputException | DatabaseOperationException e) {
-            System.err.println("✗ Error creating student: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                Student created = studentService.createStudent(student);
+                System.out.println("✓ Student created successfully: " + created.getName());
+            } catch (InvalidInputException | DatabaseOperationException e) {
+                System.err.println("✗ Error creating student: " + e.getMessage());
+            }
+        });
     }
 
     public void castVote(int studentId, int candidateId) {
-        try {
-            studentService.castVote(studentId, candidateId);
-            System.out.println("✓ Vote cast successfully");
-        } catch (ResourceNotFoundException | InvalidInputException | DatabaseOperationException e) {
-            System.err.println("✗ Error casting vote: " + e.getMessage());
-        }
+        execute(() -> {
+            try {
+                studentService.castVote(studentId, candidateId);
+                System.out.println("✓ Vote cast successfully");
+            } catch (ResourceNotFoundException | InvalidInputException | DatabaseOperationException e) {
+                System.err.println("✗ Error casting vote: " + e.getMessage());
+            }
+        });
     }
 
     // Polymorphism demonstration
@@ -85,14 +112,28 @@ public class ElectionController {
 
     // Lambda and filtering demonstration
     public void displayEligibleVoters() {
+        execute(() -> {
+            try {
+                List<Student> students = studentService.getAllStudents();
+                List<Student> eligible = SortingUtils.filterEligibleVoters(students); // Lambda
+                System.out.println("\n=== ELIGIBLE VOTERS ===");
+                System.out.println("Total: " + eligible.size());
+                eligible.forEach(s -> System.out.println("  - " + s.getName())); // Lambda
+            } catch (DatabaseOperationException e) {
+                System.err.println("✗ Error: " + e.getMessage());
+            }
+        });
+    }
+
+    // Runs the operation on a request thread, bounded by the pool size and the request timeout
+    private void execute(Runnable operation) {
         try {
-            List<Student> students = studentService.getAllStudents();
-            List<Student> eligible = SortingUtils.filterEligibleVoters(students); // Lambda
-            System.out.println("\n=== ELIGIBLE VOTERS ===");
-            System.out.println("Total: " + eligible.size());
-            eligible.forEach(s -> System.out.println("  - " + s.getName())); // Lambda
-        } catch (DatabaseOperationException e) {
-            System.err.println("✗ Error: " + e.getMessage());
+            requests.call(() -> {
+                operation.run();
+                return null;
+            });
+        } catch (RequestTimeoutException e) {
+            System.err.println("✗ " + e.getMessage());
         }
     }
 }
\ No newline at end of file
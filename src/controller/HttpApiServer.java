@@ -0,0 +1,391 @@
+package controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import exception.DatabaseOperationException;
+import exception.DuplicateResourceException;
+import exception.InvalidInputException;
+import exception.RequestTimeoutException;
+import exception.ResourceNotFoundException;
+import exception.ServiceUnavailableException;
+import model.CandidateStanding;
+import service.ResultsPublisher;
+import service.interfaces.CandidateService;
+import service.interfaces.ElectionService;
+import service.interfaces.StudentService;
+import utils.JsonWriter;
+import utils.MetricsRegistry;
+import utils.ReadSession;
+import utils.RequestExecutor;
+import utils.SlowQueryLog;
+import utils.interfaces.Request;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP front end on the JDK's built-in server. Connections are kept alive between requests.
+ *
+ * GET  /elections                          - all elections
+ * GET  /elections/{id}                     - one election
+ * GET  /elections/{id}/candidates          - the election's candidates
+ * GET  /elections/{id}/results?limit=N     - live leaderboard, top N (default 10)
+ * GET  /elections/{id}/results/stream      - server-sent events, one "results" event per snapshot
+ * GET  /candidates/{id}                    - one candidate
+ * GET  /students/{id}                      - one student
+ * POST /votes?studentId=S&candidateId=C    - casts a vote; an Idempotency-Key header makes retries safe
+ * GET  /metrics                            - call metrics in the Prometheus text format
+ * GET  /slow-queries                       - worst statements over the pool's slow query threshold, with plans
+ *
+ * Responses to requests that wrote carry a Consistency-Token header. Sending it back on
+ * later requests makes their reads see those writes, even when reads go to replicas.
+ */
+public class HttpApiServer {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int DEFAULT_LEADERBOARD_SIZE = 10;
+    // Echo it back on later requests to read your own writes when reads go to replicas
+    private static final String CONSISTENCY_TOKEN = "Consistency-Token";
+    private static final byte[] SSE_HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SSE_RESULTS_EVENT = "event: results\ndata: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SSE_EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ElectionService electionService;
+    private final CandidateService candidateService;
+    private final StudentService studentService;
+    private final RequestExecutor requests;
+    private final ResultsPublisher resultsPublisher;
+    private final MetricsRegistry metrics;
+    private final SlowQueryLog slowQueries;
+
+    /**
+     * @param slowQueries the pool's slow query log
+     */
+    public HttpApiServer(int port, ElectionService electionService, CandidateService candidateService,
+                         StudentService studentService, RequestExecutor requests,
+                         ResultsPublisher resultsPublisher, MetricsRegistry metrics,
+                         SlowQueryLog slowQueries) throws IOException {
+        this.electionService = electionService;
+        this.candidateService = candidateService;
+        this.studentService = studentService;
+        this.requests = requests;
+        this.resultsPublisher = resultsPublisher;
+        this.metrics = metrics;
+        this.slowQueries = slowQueries;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Event streams hold their handler thread for as long as the client listens
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-api-", 0).factory());
+        server.setExecutor(executor);
+        route("elections", this::handleElections);
+        route("candidates", this::handleCandidates);
+        route("students", this::handleStudents);
+        route("votes", this::handleVotes);
+        route("metrics", this::handleMetrics);
+        route("slow-queries", this::handleSlowQueries);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("HTTP API listening on port " + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Contexts match by string prefix, so "/electionsX" would reach the elections handler.
+     * Only requests whose first path segment is the resource itself get through.
+     */
+    private void route(String resource, HttpHandler handler) {
+        server.createContext("/" + resource, exchange -> {
+            String[] path = path(exchange);
+            if (path.length >= 2 && path[1].equals(resource)) {
+                handler.handle(exchange);
+            } else {
+                try (exchange) {
+                    sendError(exchange, 404, "Not found");
+                }
+            }
+        });
+    }
+
+    private void handleElections(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = path(exchange);
+            // "", "elections", "{id}", "results", "stream"
+            if (!isGet(exchange)) {
+                sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 2) {
+                respond(exchange, () -> JsonResponses.elections(electionService.getAllElections()));
+            } else if (path.length == 3) {
+                respond(exchange, () -> JsonResponses.election(electionService.getElectionById(id(path[2]))));
+            } else if (path.length == 4 && path[3].equals("candidates")) {
+                respond(exchange, () -> JsonResponses.candidates(candidateService.getCandidatesByElection(id(path[2]))));
+            } else if (path.length == 4 && path[3].equals("results")) {
+                String limit = query(exchange).get("limit");
+                respond(exchange, () -> JsonResponses.standings(candidateService.getLeaderboard(id(path[2]),
+                        limit == null ? DEFAULT_LEADERBOARD_SIZE : id(limit))));
+            } else if (path.length == 5 && path[3].equals("results") && path[4].equals("stream")) {
+                int electionId;
+                try {
+                    electionId = id(path[2]);
+                } catch (InvalidInputException e) {
+                    sendError(exchange, 400, e.getMessage());
+                    return;
+                }
+                streamResults(exchange, electionId);
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        }
+    }
+
+    private void handleCandidates(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = path(exchange);
+            if (!isGet(exchange)) {
+                sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 3) {
+                respond(exchange, () -> JsonResponses.candidate(candidateService.getCandidateById(id(path[2]))));
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        }
+    }
+
+    private void handleStudents(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = path(exchange);
+            if (!isGet(exchange)) {
+                sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 3) {
+                respond(exchange, () -> JsonResponses.student(studentService.getStudentById(id(path[2]))));
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        }
+    }
+
+    private void handleVotes(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (path(exchange).length != 2) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            Map<String, String> query = query(exchange);
+            String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            respond(exchange, () -> {
+                int studentId = id(query.get("studentId"));
+                int candidateId = id(query.get("candidateId"));
+                String key = idempotencyKey != null ? idempotencyKey
+                        : "student-" + studentId + "-candidate-" + candidateId;
+                return JsonResponses.vote(studentService.castVote(studentId, candidateId, key));
+            });
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (path(exchange).length != 2) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            if (!isGet(exchange)) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            byte[] body = metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void handleSlowQueries(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (path(exchange).length != 2) {
+                sendError(exchange, 404, "Not found");
+            } else if (!isGet(exchange)) {
+                sendError(exchange, 405, "Method not allowed");
+            } else {
+                send(exchange, 200, JsonResponses.slowQueries(slowQueries.getWorstQueries()));
+            }
+        }
+    }
+
+    /**
+     * Runs the call through the request executor and maps service exceptions to status codes.
+     */
+    private void respond(HttpExchange exchange, Request<JsonWriter, Exception> call) throws IOException {
+        ReadSession session = ReadSession.fromToken(exchange.getRequestHeaders().getFirst(CONSISTENCY_TOKEN));
+        JsonWriter body;
+        try {
+            body = requests.call(() -> session.call(call));
+        } catch (ResourceNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+            return;
+        } catch (DuplicateResourceException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        } catch (InvalidInputException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        } catch (RequestTimeoutException e) {
+            sendError(exchange, 503, e.getMessage());
+            return;
+        } catch (ServiceUnavailableException e) {
+            long seconds = Math.max(1, (e.getRetryAfterMillis() + 999) / 1000);
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(seconds));
+            sendError(exchange, 503, e.getMessage());
+            return;
+        } catch (DatabaseOperationException e) {
+            sendError(exchange, 500, e.getMessage());
+            return;
+        } catch (Exception e) {
+            System.err.println("✗ Unexpected error handling " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal server error");
+            return;
+        }
+        if (session.getLastWriteAt() > 0) {
+            exchange.getResponseHeaders().set(CONSISTENCY_TOKEN, session.getToken());
+        }
+        send(exchange, 200, body);
+    }
+
+    private void streamResults(HttpExchange exchange, int electionId) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        LatestSnapshot subscriber = new LatestSnapshot();
+        resultsPublisher.subscribe(electionId, subscriber);
+        OutputStream out = exchange.getResponseBody();
+        JsonWriter json = new JsonWriter();
+        try {
+            while (!subscriber.done) {
+                List<CandidateStanding> standings = subscriber.latest.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (standings == null) {
+                    // A heartbeat comment also tells us when the client has gone away
+                    out.write(SSE_HEARTBEAT);
+                } else {
+                    out.write(SSE_RESULTS_EVENT);
+                    JsonResponses.standings(json.reset(), standings).writeTo(out);
+                    out.write(SSE_EVENT_END);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client disconnected
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscriber.cancel();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.size());
+        json.writeTo(exchange.getResponseBody());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, JsonResponses.error(message));
+    }
+
+    private static boolean isGet(HttpExchange exchange) {
+        return exchange.getRequestMethod().equals("GET");
+    }
+
+    private static String[] path(HttpExchange exchange) {
+        return exchange.getRequestURI().getPath().split("/");
+    }
+
+    private static int id(String value) throws InvalidInputException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid number: " + value);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Keeps only the newest snapshot, so a slow client skips straight to current results.
+     */
+    private static class LatestSnapshot implements Flow.Subscriber<List<CandidateStanding>> {
+        private final BlockingQueue<List<CandidateStanding>> latest = new ArrayBlockingQueue<>(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean done = false;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (done) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<CandidateStanding> standings) {
+            // Only the publisher's delivery thread writes here
+            latest.clear();
+            latest.offer(standings);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("✗ Results stream failed: " + throwable.getMessage());
+            done = true;
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+        }
+
+        private void cancel() {
+            done = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package controller;
+
+import model.Candidate;
+import model.CandidateStanding;
+import model.Election;
+import model.Student;
+import model.Vote;
+import utils.JsonWriter;
+import utils.SlowQueryLog;
+
+import java.util.List;
+
+/**
+ * JSON bodies for the HTTP API, written field by field without reflection.
+ * Each method appends to the given writer and returns it; the one-argument
+ * overloads start a fresh writer.
+ */
+public class JsonResponses {
+
+    public static JsonWriter election(Election election) {
+        return election(new JsonWriter(), election);
+    }
+
+    public static JsonWriter election(JsonWriter json, Election election) {
+        return json.beginObject()
+                .name("id").value(election.getId())
+                .name("name").value(election.getName())
+                .name("startDate").value(election.getStartDate())
+                .name("endDate").value(election.getEndDate())
+                .name("academicYear").value(election.getAcademicYear())
+                .name("active").value(election.isActive())
+                .endObject();
+    }
+
+    public static JsonWriter elections(List<Election> elections) {
+        JsonWriter json = new JsonWriter(elections.size() * 128 + 2).beginArray();
+        for (Election election : elections) {
+            election(json, election);
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter candidate(Candidate candidate) {
+        return candidate(new JsonWriter(), candidate);
+    }
+
+    public static JsonWriter candidate(JsonWriter json, Candidate candidate) {
+        json.beginObject()
+                .name("id").value(candidate.getId())
+                .name("name").value(candidate.getName())
+                .name("major").value(candidate.getmajor())
+                .name("yearOfStudy").value(candidate.getYearOfStudy())
+                .name("campaign").value(candidate.getCampaign())
+                .name("electionId");
+        if (candidate.getElection() == null) {
+            json.nullValue();
+        } else {
+            json.value(candidate.getElection().getId());
+        }
+        return json.name("voteCount").value(candidate.getVoteCount())
+                .endObject();
+    }
+
+    public static JsonWriter candidates(List<Candidate> candidates) {
+        JsonWriter json = new JsonWriter(candidates.size() * 192 + 2).beginArray();
+        for (Candidate candidate : candidates) {
+            candidate(json, candidate);
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter student(Student student) {
+        return student(new JsonWriter(), student);
+    }
+
+    public static JsonWriter student(JsonWriter json, Student student) {
+        return json.beginObject()
+                .name("id").value(student.getId())
+                .name("name").value(student.getName())
+                .name("studentId").value(student.getStudentId())
+                .name("major").value(student.getmajor())
+                .name("yearOfStudy").value(student.getYearOfStudy())
+                .name("hasVoted").value(student.isHasVoted())
+                .endObject();
+    }
+
+    public static JsonWriter students(List<Student> students) {
+        JsonWriter json = new JsonWriter(students.size() * 128 + 2).beginArray();
+        for (Student student : students) {
+            student(json, student);
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter vote(Vote vote) {
+        return new JsonWriter(192).beginObject()
+                .name("id").value(vote.getId())
+                .name("studentId").value(vote.getStudentId())
+                .name("candidateId").value(vote.getCandidateId())
+                .name("electionId").value(vote.getElectionId())
+                .name("castAt").value(vote.getCastAt())
+                .name("idempotencyKey").value(vote.getIdempotencyKey())
+                .endObject();
+    }
+
+    public static JsonWriter standings(List<CandidateStanding> standings) {
+        return standings(new JsonWriter(standings.size() * 96 + 2), standings);
+    }
+
+    public static JsonWriter standings(JsonWriter json, List<CandidateStanding> standings) {
+        json.beginArray();
+        for (CandidateStanding standing : standings) {
+            json.beginObject()
+                    .name("candidateId").value(standing.getCandidateId())
+                    .name("candidateName").value(standing.getCandidateName())
+                    .name("electionId").value(standing.getElectionId())
+                    .name("votes").value(standing.getVotes())
+                    .endObject();
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter slowQueries(List<SlowQueryLog.SlowQuery> queries) {
+        JsonWriter json = new JsonWriter(queries.size() * 2048 + 2).beginArray();
+        for (SlowQueryLog.SlowQuery query : queries) {
+            json.beginObject()
+                    .name("sql").value(query.getSql())
+                    .name("parameters").value(query.getParameterShape())
+                    .name("worstMillis").value(query.getWorstNanos() / 1_000_000)
+                    .name("totalMillis").value(query.getTotalNanos() / 1_000_000)
+                    .name("count").value(query.getCount())
+                    .name("lastSeen").value(query.getLastSeen())
+                    .name("plan").value(query.getPlan())
+                    .endObject();
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter error(String message) {
+        return new JsonWriter(64).beginObject()
+                .name("error").value(message)
+                .endObject();
+    }
+}
@@ -0,0 +1,7 @@
+package exception;
+
+public class RequestTimeoutException extends Exception {
+    public RequestTimeoutException(String message) {
+        super(message);
+    }
+}
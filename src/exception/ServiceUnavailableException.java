@@ -0,0 +1,20 @@
+package exception;
+
+/**
+ * The database is failing and calls are being rejected until it recovers.
+ */
+public class ServiceUnavailableException extends DatabaseOperationException {
+    private final long retryAfterMillis;
+
+    public ServiceUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * How long until the next attempt may get through.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
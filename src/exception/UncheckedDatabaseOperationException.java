@@ -0,0 +1,16 @@
+package exception;
+
+/**
+ * Wraps a DatabaseOperationException where a checked exception cannot be thrown,
+ * such as while consuming a Stream backed by a database cursor.
+ */
+public class UncheckedDatabaseOperationException extends RuntimeException {
+    public UncheckedDatabaseOperationException(DatabaseOperationException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized DatabaseOperationException getCause() {
+        return (DatabaseOperationException) super.getCause();
+    }
+}
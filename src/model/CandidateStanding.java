@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * A candidate's position in an election's live results.
+ * Immutable, so leaderboard snapshots can be shared between readers.
+ */
+public class CandidateStanding {
+    private final int candidateId;
+    private final String candidateName;
+    private final int electionId;
+    private final long votes;
+
+    public CandidateStanding(int candidateId, String candidateName, int electionId, long votes) {
+        this.candidateId = candidateId;
+        this.candidateName = candidateName;
+        this.electionId = electionId;
+        this.votes = votes;
+    }
+
+    public CandidateStanding withVotes(long votes) {
+        return new CandidateStanding(candidateId, candidateName, electionId, votes);
+    }
+
+    // Getters
+
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    public String getCandidateName() {
+        return candidateName;
+    }
+
+    public int getElectionId() {
+        return electionId;
+    }
+
+    public long getVotes() {
+        return votes;
+    }
+
+    @Override
+    public String toString() {
+        return candidateName + " - Votes: " + votes;
+    }
+}
@@ -19,6 +19,10 @@ public class Election {
         this.academicYear = academicYear;
     }
 
+    public Election(Election other) {
+        this(other.id, other.name, other.startDate, other.endDate, other.academicYear);
+    }
+
     public boolean isActive() {
         LocalDate now = LocalDate.now();
         return !now.isBefore(startDate) && !now.isAfter(endDate);
@@ -0,0 +1,95 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only votes ledger.
+ */
+public class Vote {
+    private long id;
+    private int studentId;
+    private int candidateId;
+    private int electionId;
+    private LocalDateTime castAt;
+    private String idempotencyKey;
+
+    public Vote() {}
+
+    public Vote(int studentId, int candidateId, String idempotencyKey) {
+        this.studentId = studentId;
+        this.candidateId = candidateId;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Vote(long id, int studentId, int candidateId, int electionId,
+                LocalDateTime castAt, String idempotencyKey) {
+        this.id = id;
+        this.studentId = studentId;
+        this.candidateId = candidateId;
+        this.electionId = electionId;
+        this.castAt = castAt;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    // Getters and Setters
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    public void setCandidateId(int candidateId) {
+        this.candidateId = candidateId;
+    }
+
+    public int getElectionId() {
+        return electionId;
+    }
+
+    public void setElectionId(int electionId) {
+        this.electionId = electionId;
+    }
+
+    public LocalDateTime getCastAt() {
+        return castAt;
+    }
+
+    public void setCastAt(LocalDateTime castAt) {
+        this.castAt = castAt;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @Override
+    public String toString() {
+        return "Vote{" +
+                "id=" + id +
+                ", studentId=" + studentId +
+                ", candidateId=" + candidateId +
+                ", electionId=" + electionId +
+                ", castAt=" + castAt +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Per-candidate vote counts of one election, read from the votes ledger in a single snapshot.
+ * lastVoteId is the highest ledger id included in the counts.
+ */
+public class VoteTally {
+    private final Map<Integer, Long> counts;
+    private final long lastVoteId;
+
+    public VoteTally(Map<Integer, Long> counts, long lastVoteId) {
+        this.counts = counts;
+        this.lastVoteId = lastVoteId;
+    }
+
+    public long getCount(int candidateId) {
+        return counts.getOrDefault(candidateId, 0L);
+    }
+
+    public Map<Integer, Long> getCounts() {
+        return counts;
+    }
+
+    public long getLastVoteId() {
+        return lastVoteId;
+    }
+}
@@ -0,0 +1,52 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Election;
+import repository.interfaces.ElectionRepository;
+import utils.EntityCache;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cached ElectionRepository. Elections are rarely written and only through this
+ * repository, which makes them the safest entity to cache.
+ */
+public class CachingElectionRepository extends CachingRepository<Election, Integer> implements ElectionRepository {
+    private final ElectionRepository electionDelegate;
+
+    public CachingElectionRepository(ElectionRepository delegate, EntityCache<Integer, Election> cache) {
+        super(delegate, cache, Election::getId, Election::new);
+        this.electionDelegate = delegate;
+    }
+
+    @Override
+    public List<Election> findActiveElections() throws DatabaseOperationException {
+        return electionDelegate.findActiveElections();
+    }
+
+    @Override
+    public List<Election> findByAcademicYear(String academicYear) throws DatabaseOperationException {
+        return electionDelegate.findByAcademicYear(academicYear);
+    }
+
+    @Override
+    public List<Election> findActiveElectionsPage(Integer afterId, int limit) throws DatabaseOperationException {
+        return electionDelegate.findActiveElectionsPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Election> streamActiveElections() throws DatabaseOperationException {
+        return electionDelegate.streamActiveElections();
+    }
+
+    @Override
+    public List<Election> findByAcademicYearPage(String academicYear, Integer afterId, int limit) throws DatabaseOperationException {
+        return electionDelegate.findByAcademicYearPage(academicYear, afterId, limit);
+    }
+
+    @Override
+    public Stream<Election> streamByAcademicYear(String academicYear) throws DatabaseOperationException {
+        return electionDelegate.streamByAcademicYear(academicYear);
+    }
+}
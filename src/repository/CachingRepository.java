@@ -0,0 +1,125 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.ResourceNotFoundException;
+import repository.interfaces.CRUDRepository;
+import utils.EntityCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache decorator for any CRUDRepository.
+ * findById and exists are answered from the cache when possible; update and delete
+ * invalidate the cached entry after the delegate has written the change.
+ *
+ * Entities are mutable, so the cache keeps its own copy of what was read and hands every
+ * caller a fresh copy: changing a returned entity never changes what other readers see.
+ *
+ * Only wrap repositories whose rows are not modified behind the delegate's back and whose
+ * findById reads the primary, otherwise readers can see stale entities until the TTL expires.
+ */
+public class CachingRepository<T, ID> implements CRUDRepository<T, ID> {
+    protected final CRUDRepository<T, ID> delegate;
+    protected final EntityCache<ID, T> cache;
+    private final Function<T, ID> idExtractor;
+    private final UnaryOperator<T> copier;
+
+    public CachingRepository(CRUDRepository<T, ID> delegate, EntityCache<ID, T> cache,
+                             Function<T, ID> idExtractor, UnaryOperator<T> copier) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.idExtractor = idExtractor;
+        this.copier = copier;
+    }
+
+    // Only reads populate the cache: the caller keeps the created instance and may change it
+    @Override
+    public T create(T entity) throws DatabaseOperationException {
+        return delegate.create(entity);
+    }
+
+    @Override
+    public T findById(ID id) throws ResourceNotFoundException, DatabaseOperationException {
+        T cached = cache.get(id);
+        if (cached != null) {
+            return copier.apply(cached);
+        }
+        T loaded = delegate.findById(id);
+        cache.put(id, copier.apply(loaded));
+        return loaded;
+    }
+
+    @Override
+    public List<T> findAll() throws DatabaseOperationException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public T update(T entity) throws ResourceNotFoundException, DatabaseOperationException {
+        ID id = idExtractor.apply(entity);
+        try {
+            return delegate.update(entity);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void delete(ID id) throws ResourceNotFoundException, DatabaseOperationException {
+        try {
+            delegate.delete(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public boolean exists(ID id) throws DatabaseOperationException {
+        return cache.contains(id) || delegate.exists(id);
+    }
+
+    @Override
+    public List<T> createAll(Collection<T> entities) throws DatabaseOperationException {
+        return delegate.createAll(entities);
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) throws ResourceNotFoundException, DatabaseOperationException {
+        try {
+            return delegate.updateAll(entities);
+        } finally {
+            for (T entity : entities) {
+                cache.invalidate(idExtractor.apply(entity));
+            }
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<ID> ids) throws DatabaseOperationException {
+        try {
+            return delegate.deleteAllById(ids);
+        } finally {
+            for (ID id : ids) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    @Override
+    public List<T> findPage(ID afterId, int limit) throws DatabaseOperationException {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<T> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    public EntityCache<ID, T> getCache() {
+        return cache;
+    }
+}
@@ -1,22 +1,49 @@
 package repository;
 
 import utils.DatabaseConnection;
+import utils.JdbcBatches;
+import utils.JdbcStreams;
+import utils.interfaces.ConnectionProvider;
 import exception.DatabaseOperationException;
 import exception.ResourceNotFoundException;
 import model.Candidate;
 import model.Election;
 import repository.interfaces.CandidateRepository;
+import repository.interfaces.ElectionRepository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class CandidateRepositoryImpl implements CandidateRepository {
 
-    private ElectionRepositoryImpl electionRepository = new ElectionRepositoryImpl();
+    private final ConnectionProvider connectionProvider;
+    private final ElectionRepository electionRepository;
+
+    /**
+     * Candidates take their Election from this repository, so pass a cached one to share
+     * Election instances across queries.
+     */
+    public CandidateRepositoryImpl(ElectionRepository electionRepository) {
+        this(DatabaseConnection.getProvider(), electionRepository);
+    }
+
+    public CandidateRepositoryImpl(ConnectionProvider connectionProvider, ElectionRepository electionRepository) {
+        this.connectionProvider = connectionProvider;
+        this.electionRepository = electionRepository;
+    }
 
     private Connection getConnection() throws SQLException {
-        return DatabaseConnection.getConnection();
+        return connectionProvider.getConnection();
+    }
+
+    // Reads that may be served by a replica
+    private Connection getReadConnection() throws SQLException {
+        return connectionProvider.getReadConnection();
     }
 
     @Override
@@ -24,7 +51,8 @@ public class CandidateRepositoryImpl implements CandidateRepository {
         String sql = "INSERT INTO candidates (name, major, year_of_study, campaign, election_id, vote_count) " +
                 "VALUES (?, ?, ?, ?, ?, ?) RETURNING id";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, candidate.getName());
             stmt.setString(2, candidate.getmajor());
             stmt.setInt(3, candidate.getYearOfStudy());
@@ -45,40 +73,44 @@ public class CandidateRepositoryImpl implements CandidateRepository {
 
     @Override
     public Candidate findById(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
-        String sql = "SELECT c.*, e.* FROM candidates c " +
-                "JOIN elections e ON c.election_id = e.id " +
-                "WHERE c.id = ?";
+        String sql = "SELECT * FROM candidates WHERE id = ?";
+        List<Candidate> candidates = new ArrayList<>(1);
+        List<Integer> electionIds = new ArrayList<>(1);
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return mapResultSetToCandidate(rs);
+            if (!rs.next()) {
+                throw new ResourceNotFoundException("Candidate not found with id: " + id);
             }
-            throw new ResourceNotFoundException("Candidate not found with id: " + id);
+            candidates.add(mapResultSetToCandidate(rs));
+            electionIds.add(rs.getInt("election_id"));
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error finding candidate: " + e.getMessage(), e);
         }
+        return attachElections(candidates, electionIds).get(0);
     }
 
     @Override
     public List<Candidate> findAll() throws DatabaseOperationException {
-        String sql = "SELECT c.*, e.* FROM candidates c " +
-                "JOIN elections e ON c.election_id = e.id " +
-                "ORDER BY c.name";
+        String sql = "SELECT * FROM candidates ORDER BY name";
         List<Candidate> candidates = new ArrayList<>();
+        List<Integer> electionIds = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 candidates.add(mapResultSetToCandidate(rs));
+                electionIds.add(rs.getInt("election_id"));
             }
-            return candidates;
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error finding all candidates: " + e.getMessage(), e);
         }
+        return attachElections(candidates, electionIds);
     }
 
     @Override
@@ -86,7 +118,8 @@ public class CandidateRepositoryImpl implements CandidateRepository {
         String sql = "UPDATE candidates SET name = ?, major = ?, year_of_study = ?, " +
                 "campaign = ?, election_id = ?, vote_count = ? WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, candidate.getName());
             stmt.setString(2, candidate.getmajor());
             stmt.setInt(3, candidate.getYearOfStudy());
@@ -109,7 +142,8 @@ public class CandidateRepositoryImpl implements CandidateRepository {
     public void delete(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "DELETE FROM candidates WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
 
             int rowsAffected = stmt.executeUpdate();
@@ -122,10 +156,11 @@ public class CandidateRepositoryImpl implements CandidateRepository {
     }
 
     @Override
-    public boolean exists(Integer id) {
+    public boolean exists(Integer id) throws DatabaseOperationException {
         String sql = "SELECT COUNT(*) FROM candidates WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -134,67 +169,282 @@ public class CandidateRepositoryImpl implements CandidateRepository {
             }
             return false;
         } catch (SQLException e) {
-            return false;
+            throw new DatabaseOperationException("Error checking candidate: " + e.getMessage(), e);
         }
     }
 
     @Override
     public List<Candidate> findByElectionId(int electionId) throws DatabaseOperationException {
-        String sql = "SELECT c.*, e.* FROM candidates c " +
-                "JOIN elections e ON c.election_id = e.id " +
-                "WHERE c.election_id = ? " +
-                "ORDER BY c.vote_count DESC";
+        String sql = "SELECT * FROM candidates WHERE election_id = ? ORDER BY vote_count DESC";
         List<Candidate> candidates = new ArrayList<>();
+        List<Integer> electionIds = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, electionId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
                 candidates.add(mapResultSetToCandidate(rs));
+                electionIds.add(rs.getInt("election_id"));
             }
-            return candidates;
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error finding candidates by election: " + e.getMessage(), e);
         }
+        return attachElections(candidates, electionIds);
     }
 
     @Override
     public List<Candidate> findBymajor(String major) throws DatabaseOperationException {
-        String sql = "SELECT c.*, e.* FROM candidates c " +
-                "JOIN elections e ON c.election_id = e.id " +
-                "WHERE c.major = ?";
+        String sql = "SELECT * FROM candidates WHERE major = ?";
         List<Candidate> candidates = new ArrayList<>();
+        List<Integer> electionIds = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, major);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
                 candidates.add(mapResultSetToCandidate(rs));
+                electionIds.add(rs.getInt("election_id"));
             }
-            return candidates;
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error finding candidates by major: " + e.getMessage(), e);
         }
+        return attachElections(candidates, electionIds);
     }
 
-    private Candidate mapResultSetToCandidate(ResultSet rs) throws SQLException {
-        Election election = new Election(
-                rs.getInt("election_id"),
-                rs.getString("name"),
-                rs.getDate("start_date").toLocalDate(),
-                rs.getDate("end_date").toLocalDate(),
-                rs.getString("academic_year")
-        );
+    @Override
+    public List<Candidate> createAll(Collection<Candidate> candidates) throws DatabaseOperationException {
+        String sql = "INSERT INTO candidates (name, major, year_of_study, campaign, election_id, vote_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        List<Candidate> created = new ArrayList<>(candidates);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
+                int pending = 0;
+                int next = 0;
+                for (Candidate candidate : created) {
+                    stmt.setString(1, candidate.getName());
+                    stmt.setString(2, candidate.getmajor());
+                    stmt.setInt(3, candidate.getYearOfStudy());
+                    stmt.setString(4, candidate.getCampaign());
+                    stmt.setInt(5, candidate.getElection().getId());
+                    stmt.setInt(6, candidate.getVoteCount());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = executeInsertBatch(stmt, created, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeInsertBatch(stmt, created, next);
+                }
+
+                conn.commit();
+                return created;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error creating candidates: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Candidate> updateAll(Collection<Candidate> candidates) throws ResourceNotFoundException, DatabaseOperationException {
+        String sql = "UPDATE candidates SET name = ?, major = ?, year_of_study = ?, " +
+                "campaign = ?, election_id = ?, vote_count = ? WHERE id = ?";
+        List<Candidate> updated = new ArrayList<>(candidates);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                int next = 0;
+                for (Candidate candidate : updated) {
+                    stmt.setString(1, candidate.getName());
+                    stmt.setString(2, candidate.getmajor());
+                    stmt.setInt(3, candidate.getYearOfStudy());
+                    stmt.setString(4, candidate.getCampaign());
+                    stmt.setInt(5, candidate.getElection().getId());
+                    stmt.setInt(6, candidate.getVoteCount());
+                    stmt.setInt(7, candidate.getId());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = checkUpdateBatch(stmt.executeBatch(), updated, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    checkUpdateBatch(stmt.executeBatch(), updated, next);
+                }
+
+                conn.commit();
+                return updated;
+            } catch (SQLException | ResourceNotFoundException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error updating candidates: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<Integer> ids) throws DatabaseOperationException {
+        String sql = "DELETE FROM candidates WHERE id = ANY(?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error deleting candidates: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs the pending insert batch and copies the generated ids onto the matching entities.
+     *
+     * @return index of the first entity of the next batch
+     */
+    private int executeInsertBatch(PreparedStatement stmt, List<Candidate> candidates, int next) throws SQLException {
+        stmt.executeBatch();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                candidates.get(next++).setId(keys.getInt(1));
+            }
+        }
+        return next;
+    }
+
+    private int checkUpdateBatch(int[] results, List<Candidate> candidates, int next) throws ResourceNotFoundException {
+        for (int result : results) {
+            Candidate candidate = candidates.get(next++);
+            if (result == 0) {
+                throw new ResourceNotFoundException("Candidate not found with id: " + candidate.getId());
+            }
+        }
+        return next;
+    }
 
+    @Override
+    public List<Candidate> findPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM candidates WHERE id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Candidate> streamAll() throws DatabaseOperationException {
+        return stream("SELECT * FROM candidates ORDER BY id");
+    }
+
+    @Override
+    public List<Candidate> findByElectionIdPage(int electionId, Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM candidates WHERE election_id = ? AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit, electionId);
+    }
+
+    @Override
+    public Stream<Candidate> streamByElectionId(int electionId) throws DatabaseOperationException {
+        return stream("SELECT * FROM candidates WHERE election_id = ? ORDER BY id", electionId);
+    }
+
+    @Override
+    public List<Candidate> findBymajorPage(String major, Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM candidates WHERE major = ? AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit, major);
+    }
+
+    @Override
+    public Stream<Candidate> streamBymajor(String major) throws DatabaseOperationException {
+        return stream("SELECT * FROM candidates WHERE major = ? ORDER BY id", major);
+    }
+
+    /**
+     * Runs a keyset page query whose last two parameters are the id to start after and the limit.
+     */
+    private List<Candidate> findPage(String sql, Integer afterId, int limit, Object... filters) throws DatabaseOperationException {
+        List<Candidate> candidates = new ArrayList<>(limit);
+        List<Integer> electionIds = new ArrayList<>(limit);
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < filters.length; i++) {
+                stmt.setObject(i + 1, filters[i]);
+            }
+            stmt.setInt(filters.length + 1, afterId == null ? 0 : afterId);
+            stmt.setInt(filters.length + 2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                candidates.add(mapResultSetToCandidate(rs));
+                electionIds.add(rs.getInt("election_id"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding candidates page: " + e.getMessage(), e);
+        }
+        return attachElections(candidates, electionIds);
+    }
+
+    /**
+     * Elections are loaded up front, so the open cursor never waits on a second connection.
+     */
+    private Stream<Candidate> stream(String sql, Object... params) throws DatabaseOperationException {
+        Map<Integer, Election> elections = new HashMap<>();
+        for (Election election : electionRepository.findAll()) {
+            elections.put(election.getId(), election);
+        }
+
+        try {
+            return JdbcStreams.stream(getReadConnection(), sql, rs -> {
+                Candidate candidate = mapResultSetToCandidate(rs);
+                candidate.setElection(elections.get(rs.getInt("election_id")));
+                return candidate;
+            }, params);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming candidates: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolves each candidate's election after the result set is closed, so no second
+     * connection is borrowed mid-query. Candidates of the same election share one instance.
+     */
+    private List<Candidate> attachElections(List<Candidate> candidates, List<Integer> electionIds)
+            throws DatabaseOperationException {
+        Map<Integer, Election> elections = new HashMap<>();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Integer electionId = electionIds.get(i);
+            Election election = elections.get(electionId);
+            if (election == null) {
+                try {
+                    election = electionRepository.findById(electionId);
+                } catch (ResourceNotFoundException e) {
+                    throw new DatabaseOperationException("Candidate references missing election: " + electionId, e);
+                }
+                elections.put(electionId, election);
+            }
+            candidates.get(i).setElection(election);
+        }
+        return candidates;
+    }
+
+    private Candidate mapResultSetToCandidate(ResultSet rs) throws SQLException {
         Candidate candidate = new Candidate(
                 rs.getInt("id"),
                 rs.getString("name"),
                 rs.getString("major"),
                 rs.getInt("year_of_study"),
                 rs.getString("campaign"),
-                election
+                null
         );
         candidate.setVoteCount(rs.getInt("vote_count"));
 
@@ -1,6 +1,9 @@
 package repository;
 
 import utils.DatabaseConnection;
+import utils.JdbcBatches;
+import utils.JdbcStreams;
+import utils.interfaces.ConnectionProvider;
 import exception.DatabaseOperationException;
 import exception.ResourceNotFoundException;
 import model.Election;
@@ -9,19 +12,37 @@ import repository.interfaces.ElectionRepository;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ElectionRepositoryImpl implements ElectionRepository {
 
+    private final ConnectionProvider connectionProvider;
+
+    public ElectionRepositoryImpl() {
+        this(DatabaseConnection.getProvider());
+    }
+
+    public ElectionRepositoryImpl(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
     private Connection getConnection() throws SQLException {
-        return DatabaseConnection.getConnection();
+        return connectionProvider.getConnection();
+    }
+
+    // Reads that may be served by a replica
+    private Connection getReadConnection() throws SQLException {
+        return connectionProvider.getReadConnection();
     }
 
     @Override
     public Election create(Election election) throws DatabaseOperationException {
         String sql = "INSERT INTO elections (name, start_date, end_date, academic_year) VALUES (?, ?, ?, ?) RETURNING id";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, election.getName());
             stmt.setDate(2, Date.valueOf(election.getStartDate()));
             stmt.setDate(3, Date.valueOf(election.getEndDate()));
@@ -42,7 +63,10 @@ public class ElectionRepositoryImpl implements ElectionRepository {
     public Election findById(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "SELECT * FROM elections WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        // Always the primary: this loads the shared election cache, and a row read from a
+        // lagging replica right after an update would be cached for everyone until the TTL
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -60,7 +84,8 @@ public class ElectionRepositoryImpl implements ElectionRepository {
         String sql = "SELECT * FROM elections ORDER BY start_date DESC";
         List<Election> elections = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -76,7 +101,8 @@ public class ElectionRepositoryImpl implements ElectionRepository {
     public Election update(Election election) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "UPDATE elections SET name = ?, start_date = ?, end_date = ?, academic_year = ? WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, election.getName());
             stmt.setDate(2, Date.valueOf(election.getStartDate()));
             stmt.setDate(3, Date.valueOf(election.getEndDate()));
@@ -97,7 +123,8 @@ public class ElectionRepositoryImpl implements ElectionRepository {
     public void delete(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "DELETE FROM elections WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
 
             int rowsAffected = stmt.executeUpdate();
@@ -110,10 +137,11 @@ public class ElectionRepositoryImpl implements ElectionRepository {
     }
 
     @Override
-    public boolean exists(Integer id) {
+    public boolean exists(Integer id) throws DatabaseOperationException {
         String sql = "SELECT COUNT(*) FROM elections WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -122,7 +150,7 @@ public class ElectionRepositoryImpl implements ElectionRepository {
             }
             return false;
         } catch (SQLException e) {
-            return false;
+            throw new DatabaseOperationException("Error checking election: " + e.getMessage(), e);
         }
     }
 
@@ -131,7 +159,8 @@ public class ElectionRepositoryImpl implements ElectionRepository {
         String sql = "SELECT * FROM elections WHERE CURRENT_DATE BETWEEN start_date AND end_date";
         List<Election> elections = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -148,7 +177,8 @@ public class ElectionRepositoryImpl implements ElectionRepository {
         String sql = "SELECT * FROM elections WHERE academic_year = ?";
         List<Election> elections = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, academicYear);
             ResultSet rs = stmt.executeQuery();
 
@@ -161,6 +191,186 @@ public class ElectionRepositoryImpl implements ElectionRepository {
         }
     }
 
+    @Override
+    public List<Election> createAll(Collection<Election> elections) throws DatabaseOperationException {
+        String sql = "INSERT INTO elections (name, start_date, end_date, academic_year) " +
+                "VALUES (?, ?, ?, ?)";
+        List<Election> created = new ArrayList<>(elections);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
+                int pending = 0;
+                int next = 0;
+                for (Election election : created) {
+                    stmt.setString(1, election.getName());
+                    stmt.setDate(2, Date.valueOf(election.getStartDate()));
+                    stmt.setDate(3, Date.valueOf(election.getEndDate()));
+                    stmt.setString(4, election.getAcademicYear());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = executeInsertBatch(stmt, created, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeInsertBatch(stmt, created, next);
+                }
+
+                conn.commit();
+                return created;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error creating elections: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Election> updateAll(Collection<Election> elections) throws ResourceNotFoundException, DatabaseOperationException {
+        String sql = "UPDATE elections SET name = ?, start_date = ?, end_date = ?, academic_year = ? WHERE id = ?";
+        List<Election> updated = new ArrayList<>(elections);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                int next = 0;
+                for (Election election : updated) {
+                    stmt.setString(1, election.getName());
+                    stmt.setDate(2, Date.valueOf(election.getStartDate()));
+                    stmt.setDate(3, Date.valueOf(election.getEndDate()));
+                    stmt.setString(4, election.getAcademicYear());
+                    stmt.setInt(5, election.getId());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = checkUpdateBatch(stmt.executeBatch(), updated, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    checkUpdateBatch(stmt.executeBatch(), updated, next);
+                }
+
+                conn.commit();
+                return updated;
+            } catch (SQLException | ResourceNotFoundException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error updating elections: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<Integer> ids) throws DatabaseOperationException {
+        String sql = "DELETE FROM elections WHERE id = ANY(?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error deleting elections: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs the pending insert batch and copies the generated ids onto the matching entities.
+     *
+     * @return index of the first entity of the next batch
+     */
+    private int executeInsertBatch(PreparedStatement stmt, List<Election> elections, int next) throws SQLException {
+        stmt.executeBatch();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                elections.get(next++).setId(keys.getInt(1));
+            }
+        }
+        return next;
+    }
+
+    private int checkUpdateBatch(int[] results, List<Election> elections, int next) throws ResourceNotFoundException {
+        for (int result : results) {
+            Election election = elections.get(next++);
+            if (result == 0) {
+                throw new ResourceNotFoundException("Election not found with id: " + election.getId());
+            }
+        }
+        return next;
+    }
+
+    @Override
+    public List<Election> findPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM elections WHERE id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Election> streamAll() throws DatabaseOperationException {
+        return stream("SELECT * FROM elections ORDER BY id");
+    }
+
+    @Override
+    public List<Election> findActiveElectionsPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM elections WHERE CURRENT_DATE BETWEEN start_date AND end_date " +
+                "AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Election> streamActiveElections() throws DatabaseOperationException {
+        return stream("SELECT * FROM elections WHERE CURRENT_DATE BETWEEN start_date AND end_date ORDER BY id");
+    }
+
+    @Override
+    public List<Election> findByAcademicYearPage(String academicYear, Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM elections WHERE academic_year = ? AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit, academicYear);
+    }
+
+    @Override
+    public Stream<Election> streamByAcademicYear(String academicYear) throws DatabaseOperationException {
+        return stream("SELECT * FROM elections WHERE academic_year = ? ORDER BY id", academicYear);
+    }
+
+    /**
+     * Runs a keyset page query whose last two parameters are the id to start after and the limit.
+     */
+    private List<Election> findPage(String sql, Integer afterId, int limit, Object... filters) throws DatabaseOperationException {
+        List<Election> elections = new ArrayList<>(limit);
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < filters.length; i++) {
+                stmt.setObject(i + 1, filters[i]);
+            }
+            stmt.setInt(filters.length + 1, afterId == null ? 0 : afterId);
+            stmt.setInt(filters.length + 2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                elections.add(mapResultSetToElection(rs));
+            }
+            return elections;
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding elections page: " + e.getMessage(), e);
+        }
+    }
+
+    private Stream<Election> stream(String sql, Object... params) throws DatabaseOperationException {
+        try {
+            return JdbcStreams.stream(getReadConnection(), sql, this::mapResultSetToElection, params);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming elections: " + e.getMessage(), e);
+        }
+    }
+
     private Election mapResultSetToElection(ResultSet rs) throws SQLException {
         return new Election(
                 rs.getInt("id"),
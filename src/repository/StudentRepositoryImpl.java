@@ -1,19 +1,45 @@
 package repository;
 
 import utils.DatabaseConnection;
+import utils.JdbcBatches;
+import utils.JdbcStreams;
+import utils.interfaces.ConnectionProvider;
 import exception.DatabaseOperationException;
 import exception.ResourceNotFoundException;
 import model.Student;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import repository.interfaces.StudentRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class StudentRepositoryImpl implements StudentRepository {
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+
+    private final ConnectionProvider connectionProvider;
+
+    public StudentRepositoryImpl() {
+        this(DatabaseConnection.getProvider());
+    }
+
+    public StudentRepositoryImpl(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
 
     private Connection getConnection() throws SQLException {
-        return DatabaseConnection.getConnection();
+        return connectionProvider.getConnection();
+    }
+
+    // Reads that may be served by a replica
+    private Connection getReadConnection() throws SQLException {
+        return connectionProvider.getReadConnection();
     }
 
     @Override
@@ -21,7 +47,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "INSERT INTO students (name, student_id, major, year_of_study, has_voted) " +
                 "VALUES (?, ?, ?, ?, ?) RETURNING id";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, student.getName());
             stmt.setString(2, student.getStudentId());
             stmt.setString(3, student.getmajor());
@@ -43,7 +70,8 @@ public class StudentRepositoryImpl implements StudentRepository {
     public Student findById(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "SELECT * FROM students WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -61,7 +89,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "SELECT * FROM students ORDER BY name";
         List<Student> students = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -78,7 +107,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "UPDATE students SET name = ?, student_id = ?, major = ?, " +
                 "year_of_study = ?, has_voted = ? WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, student.getName());
             stmt.setString(2, student.getStudentId());
             stmt.setString(3, student.getmajor());
@@ -100,7 +130,8 @@ public class StudentRepositoryImpl implements StudentRepository {
     public void delete(Integer id) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "DELETE FROM students WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
 
             int rowsAffected = stmt.executeUpdate();
@@ -113,10 +144,11 @@ public class StudentRepositoryImpl implements StudentRepository {
     }
 
     @Override
-    public boolean exists(Integer id) {
+    public boolean exists(Integer id) throws DatabaseOperationException {
         String sql = "SELECT COUNT(*) FROM students WHERE id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -125,7 +157,7 @@ public class StudentRepositoryImpl implements StudentRepository {
             }
             return false;
         } catch (SQLException e) {
-            return false;
+            throw new DatabaseOperationException("Error checking student: " + e.getMessage(), e);
         }
     }
 
@@ -133,7 +165,8 @@ public class StudentRepositoryImpl implements StudentRepository {
     public Student findByStudentId(String studentId) throws ResourceNotFoundException, DatabaseOperationException {
         String sql = "SELECT * FROM students WHERE student_id = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, studentId);
             ResultSet rs = stmt.executeQuery();
 
@@ -151,7 +184,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "SELECT * FROM students WHERE major = ?";
         List<Student> students = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, major);
             ResultSet rs = stmt.executeQuery();
 
@@ -169,7 +203,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "SELECT * FROM students WHERE has_voted = true";
         List<Student> students = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -186,7 +221,8 @@ public class StudentRepositoryImpl implements StudentRepository {
         String sql = "SELECT * FROM students WHERE has_voted = false";
         List<Student> students = new ArrayList<>();
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -198,6 +234,324 @@ public class StudentRepositoryImpl implements StudentRepository {
         }
     }
 
+    @Override
+    public List<Student> createAll(Collection<Student> students) throws DatabaseOperationException {
+        String sql = "INSERT INTO students (name, student_id, major, year_of_study, has_voted) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        List<Student> created = new ArrayList<>(students);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
+                int pending = 0;
+                int next = 0;
+                for (Student student : created) {
+                    stmt.setString(1, student.getName());
+                    stmt.setString(2, student.getStudentId());
+                    stmt.setString(3, student.getmajor());
+                    stmt.setInt(4, student.getYearOfStudy());
+                    stmt.setBoolean(5, student.isHasVoted());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = executeInsertBatch(stmt, created, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeInsertBatch(stmt, created, next);
+                }
+
+                conn.commit();
+                return created;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error creating students: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Student> updateAll(Collection<Student> students) throws ResourceNotFoundException, DatabaseOperationException {
+        String sql = "UPDATE students SET name = ?, student_id = ?, major = ?, " +
+                "year_of_study = ?, has_voted = ? WHERE id = ?";
+        List<Student> updated = new ArrayList<>(students);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                int next = 0;
+                for (Student student : updated) {
+                    stmt.setString(1, student.getName());
+                    stmt.setString(2, student.getStudentId());
+                    stmt.setString(3, student.getmajor());
+                    stmt.setInt(4, student.getYearOfStudy());
+                    stmt.setBoolean(5, student.isHasVoted());
+                    stmt.setInt(6, student.getId());
+                    stmt.addBatch();
+
+                    if (++pending == JdbcBatches.getBatchSize()) {
+                        next = checkUpdateBatch(stmt.executeBatch(), updated, next);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    checkUpdateBatch(stmt.executeBatch(), updated, next);
+                }
+
+                conn.commit();
+                return updated;
+            } catch (SQLException | ResourceNotFoundException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error updating students: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<Integer> ids) throws DatabaseOperationException {
+        String sql = "DELETE FROM students WHERE id = ANY(?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error deleting students: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs the pending insert batch and copies the generated ids onto the matching entities.
+     *
+     * @return index of the first entity of the next batch
+     */
+    private int executeInsertBatch(PreparedStatement stmt, List<Student> students, int next) throws SQLException {
+        stmt.executeBatch();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                students.get(next++).setId(keys.getInt(1));
+            }
+        }
+        return next;
+    }
+
+    private int checkUpdateBatch(int[] results, List<Student> students, int next) throws ResourceNotFoundException {
+        for (int result : results) {
+            Student student = students.get(next++);
+            if (result == 0) {
+                throw new ResourceNotFoundException("Student not found with id: " + student.getId());
+            }
+        }
+        return next;
+    }
+
+    @Override
+    public List<Student> findPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM students WHERE id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Student> streamAll() throws DatabaseOperationException {
+        return stream("SELECT * FROM students ORDER BY id");
+    }
+
+    @Override
+    public List<Student> findBymajorPage(String major, Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM students WHERE major = ? AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit, major);
+    }
+
+    @Override
+    public Stream<Student> streamBymajor(String major) throws DatabaseOperationException {
+        return stream("SELECT * FROM students WHERE major = ? ORDER BY id", major);
+    }
+
+    @Override
+    public List<Student> findVotedStudentsPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM students WHERE has_voted = true AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Student> streamVotedStudents() throws DatabaseOperationException {
+        return stream("SELECT * FROM students WHERE has_voted = true ORDER BY id");
+    }
+
+    @Override
+    public List<Student> findNonVotedStudentsPage(Integer afterId, int limit) throws DatabaseOperationException {
+        String sql = "SELECT * FROM students WHERE has_voted = false AND id > ? ORDER BY id LIMIT ?";
+        return findPage(sql, afterId, limit);
+    }
+
+    @Override
+    public Stream<Student> streamNonVotedStudents() throws DatabaseOperationException {
+        return stream("SELECT * FROM students WHERE has_voted = false ORDER BY id");
+    }
+
+    /**
+     * Runs a keyset page query whose last two parameters are the id to start after and the limit.
+     */
+    private List<Student> findPage(String sql, Integer afterId, int limit, Object... filters) throws DatabaseOperationException {
+        List<Student> students = new ArrayList<>(limit);
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < filters.length; i++) {
+                stmt.setObject(i + 1, filters[i]);
+            }
+            stmt.setInt(filters.length + 1, afterId == null ? 0 : afterId);
+            stmt.setInt(filters.length + 2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                students.add(mapResultSetToStudent(rs));
+            }
+            return students;
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding students page: " + e.getMessage(), e);
+        }
+    }
+
+    private Stream<Student> stream(String sql, Object... params) throws DatabaseOperationException {
+        try {
+            return JdbcStreams.stream(getReadConnection(), sql, this::mapResultSetToStudent, params);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming students: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Student> findByIds(int[] ids) throws DatabaseOperationException {
+        String sql = "SELECT * FROM students WHERE id = ANY(?) ORDER BY id";
+        return findByIdArray(sql, ids);
+    }
+
+    @Override
+    public List<Student> findNonVotedStudents(int electionId) throws DatabaseOperationException {
+        // Each probe is one lookup in the (election_id, student_id) unique index of one partition
+        String sql = "SELECT * FROM students s WHERE NOT EXISTS " +
+                "(SELECT 1 FROM votes v WHERE v.election_id = ? AND v.student_id = s.id) ORDER BY s.id";
+        List<Student> students = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, electionId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                students.add(mapResultSetToStudent(rs));
+            }
+            return students;
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding non-voted students: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Student> findByIdArray(String sql, int[] ids) throws DatabaseOperationException {
+        List<Student> students = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Integer[] boxed = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxed[i] = ids[i];
+            }
+            stmt.setArray(1, conn.createArrayOf("integer", boxed));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                students.add(mapResultSetToStudent(rs));
+            }
+            return students;
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding students by id: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<String> copyInNewStudents(List<Student> students) throws DatabaseOperationException {
+        String createSql = "CREATE TEMP TABLE students_import " +
+                "(name VARCHAR(255), student_id VARCHAR(50), major VARCHAR(255), year_of_study INTEGER) " +
+                "ON COMMIT DROP";
+        String copySql = "COPY students_import (name, student_id, major, year_of_study) FROM STDIN WITH (FORMAT csv)";
+        String insertSql = "INSERT INTO students (name, student_id, major, year_of_study, has_voted) " +
+                "SELECT name, student_id, major, year_of_study, false FROM students_import " +
+                "ON CONFLICT (student_id) DO NOTHING RETURNING student_id";
+        Set<String> inserted = new HashSet<>();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createSql);
+                }
+
+                CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+                try {
+                    StringBuilder chunk = new StringBuilder(COPY_CHUNK_SIZE + 512);
+                    for (Student student : students) {
+                        appendCsvField(chunk, student.getName()).append(',');
+                        appendCsvField(chunk, student.getStudentId()).append(',');
+                        appendCsvField(chunk, student.getmajor()).append(',');
+                        chunk.append(student.getYearOfStudy()).append('\n');
+
+                        if (chunk.length() >= COPY_CHUNK_SIZE) {
+                            writeChunk(copyIn, chunk);
+                        }
+                    }
+                    writeChunk(copyIn, chunk);
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(insertSql)) {
+                    while (rs.next()) {
+                        inserted.add(rs.getString(1));
+                    }
+                }
+
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error bulk loading students: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.length() > 0) {
+            byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            chunk.setLength(0);
+        }
+    }
+
+    private StringBuilder appendCsvField(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
     private Student mapResultSetToStudent(ResultSet rs) throws SQLException {
         Student student = new Student(
                 rs.getInt("id"),
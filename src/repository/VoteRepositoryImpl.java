@@ -0,0 +1,388 @@
+package repository;
+
+import utils.DatabaseConnection;
+import utils.JdbcBatches;
+import utils.interfaces.ConnectionProvider;
+import exception.DatabaseOperationException;
+import exception.ResourceNotFoundException;
+import model.Vote;
+import model.VoteTally;
+import repository.interfaces.VoteRepository;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+public class VoteRepositoryImpl implements VoteRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    private final ConnectionProvider connectionProvider;
+
+    public VoteRepositoryImpl() {
+        this(DatabaseConnection.getProvider());
+    }
+
+    public VoteRepositoryImpl(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    private Connection getConnection() throws SQLException {
+        return connectionProvider.getConnection();
+    }
+
+    @Override
+    public boolean castVote(Vote vote) throws ResourceNotFoundException, DatabaseOperationException {
+        // The (student_id, election_id) unique key of the ledger rejects a second ballot in the
+        // same election, and the counter is incremented in the database
+        String incrementSql = "UPDATE candidates SET vote_count = vote_count + 1 WHERE id = ?";
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement increment = conn.prepareStatement(incrementSql)) {
+                if (!appendToLedger(conn, vote)) {
+                    conn.rollback();
+                    return false;
+                }
+
+                increment.setInt(1, vote.getCandidateId());
+                increment.executeUpdate();
+
+                conn.commit();
+                return true;
+            } catch (SQLException | ResourceNotFoundException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error casting vote: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean recordVote(Vote vote) throws ResourceNotFoundException, DatabaseOperationException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!appendToLedger(conn, vote)) {
+                    conn.rollback();
+                    return false;
+                }
+
+                conn.commit();
+                return true;
+            } catch (SQLException | ResourceNotFoundException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error recording vote: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int saveAll(List<Vote> votes) throws DatabaseOperationException {
+        // One multi-row INSERT per chunk instead of a JDBC batch: with reWriteBatchedInserts the
+        // driver reports every batched row as SUCCESS_NO_INFO, which cannot tell an insert from
+        // a row skipped by ON CONFLICT, while the update count of a single statement can.
+        // A vote without a timestamp is stamped by the database, like the column default does
+        String sql = "INSERT INTO votes (student_id, candidate_id, election_id, cast_at, idempotency_key) " +
+                "SELECT student_id, candidate_id, election_id, COALESCE(cast_at, CURRENT_TIMESTAMP), key " +
+                "FROM unnest(?::int[], ?::int[], ?::int[], ?::timestamp[], ?::varchar[]) " +
+                "AS v(student_id, candidate_id, election_id, cast_at, key) " +
+                "ON CONFLICT (election_id, idempotency_key) DO NOTHING";
+        int inserted = 0;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int chunkSize = JdbcBatches.getBatchSize();
+                for (int from = 0; from < votes.size(); from += chunkSize) {
+                    inserted += insertChunk(conn, stmt, votes.subList(from, Math.min(from + chunkSize, votes.size())));
+                }
+
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error saving votes: " + e.getMessage(), e);
+        }
+    }
+
+    private int insertChunk(Connection conn, PreparedStatement stmt, List<Vote> chunk) throws SQLException {
+        Integer[] studentIds = new Integer[chunk.size()];
+        Integer[] candidateIds = new Integer[chunk.size()];
+        Integer[] electionIds = new Integer[chunk.size()];
+        Timestamp[] castAt = new Timestamp[chunk.size()];
+        String[] keys = new String[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Vote vote = chunk.get(i);
+            studentIds[i] = vote.getStudentId();
+            candidateIds[i] = vote.getCandidateId();
+            electionIds[i] = vote.getElectionId();
+            castAt[i] = vote.getCastAt() != null ? Timestamp.valueOf(vote.getCastAt()) : null;
+            keys[i] = vote.getIdempotencyKey();
+        }
+
+        stmt.setArray(1, conn.createArrayOf("int4", studentIds));
+        stmt.setArray(2, conn.createArrayOf("int4", candidateIds));
+        stmt.setArray(3, conn.createArrayOf("int4", electionIds));
+        stmt.setArray(4, conn.createArrayOf("timestamp", castAt));
+        stmt.setArray(5, conn.createArrayOf("varchar", keys));
+        return stmt.executeUpdate();
+    }
+
+    @Override
+    public void streamVotes(int electionId, Consumer<Vote> consumer) throws DatabaseOperationException {
+        String sql = "SELECT * FROM votes WHERE election_id = ? ORDER BY id";
+
+        try (Connection conn = getConnection()) {
+            // PostgreSQL only honours the fetch size inside a transaction
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                stmt.setInt(1, electionId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapResultSetToVote(rs));
+                    }
+                }
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming votes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public VoteTally tallyVotes(int electionId) throws DatabaseOperationException {
+        // One statement, so the counts and the high-water id come from the same snapshot
+        String sql = "SELECT candidate_id, COUNT(*) AS votes, MAX(MAX(id)) OVER () AS last_vote_id " +
+                "FROM votes WHERE election_id = ? GROUP BY candidate_id";
+        Map<Integer, Long> counts = new HashMap<>();
+        long lastVoteId = 0;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, electionId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                counts.put(rs.getInt("candidate_id"), rs.getLong("votes"));
+                lastVoteId = rs.getLong("last_vote_id");
+            }
+            return new VoteTally(counts, lastVoteId);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error tallying votes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void forEachVoterId(int electionId, IntConsumer consumer) throws DatabaseOperationException {
+        String sql = "SELECT student_id FROM votes WHERE election_id = ?";
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                stmt.setInt(1, electionId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(rs.getInt(1));
+                    }
+                }
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error loading voters: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Vote findByIdempotencyKey(int electionId, String idempotencyKey) throws ResourceNotFoundException, DatabaseOperationException {
+        // Keys are unique per election, which also confines the lookup to one partition
+        String sql = "SELECT * FROM votes WHERE election_id = ? AND idempotency_key = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, electionId);
+            stmt.setString(2, idempotencyKey);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToVote(rs);
+            }
+            throw new ResourceNotFoundException("Vote not found with idempotency key: " + idempotencyKey);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error finding vote: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void applyVoteCounts(Map<Integer, Long> deltas, String batchId) throws DatabaseOperationException {
+        String batchSql = "INSERT INTO vote_flushes (batch_id) VALUES (?)";
+        String incrementSql = "UPDATE candidates SET vote_count = vote_count + ? WHERE id = ?";
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement batch = conn.prepareStatement(batchSql);
+                 PreparedStatement increment = conn.prepareStatement(incrementSql)) {
+                batch.setString(1, batchId);
+                batch.executeUpdate();
+
+                for (Map.Entry<Integer, Long> delta : deltas.entrySet()) {
+                    increment.setLong(1, delta.getValue());
+                    increment.setInt(2, delta.getKey());
+                    increment.addBatch();
+                }
+                increment.executeBatch();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error applying vote counts: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean isBatchApplied(String batchId) throws DatabaseOperationException {
+        String sql = "SELECT 1 FROM vote_flushes WHERE batch_id = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, batchId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error checking vote batch: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> recountVoteCounts(int electionId) throws DatabaseOperationException {
+        // castVote increments under the same row locks, so once they are held every vote is
+        // either committed, and visible to the next statement, or waiting to add itself on top
+        String lockSql = "SELECT id FROM candidates WHERE election_id = ? ORDER BY id FOR UPDATE";
+        String recountSql = "UPDATE candidates c SET vote_count = " +
+                "(SELECT COUNT(*) FROM votes v WHERE v.election_id = c.election_id AND v.candidate_id = c.id) " +
+                "WHERE c.election_id = ? RETURNING c.id, c.vote_count";
+        Map<Integer, Long> counts = new HashMap<>();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement(lockSql);
+                 PreparedStatement recount = conn.prepareStatement(recountSql)) {
+                lock.setInt(1, electionId);
+                lock.executeQuery().close();
+
+                recount.setInt(1, electionId);
+                try (ResultSet rs = recount.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getInt("id"), rs.getLong("vote_count"));
+                    }
+                }
+
+                conn.commit();
+                return counts;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error recounting votes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int recountAllVoteCounts() throws DatabaseOperationException {
+        String sql = "UPDATE candidates c SET vote_count = t.votes " +
+                "FROM (SELECT c2.id, COUNT(v.id) AS votes FROM candidates c2 " +
+                "LEFT JOIN votes v ON v.election_id = c2.election_id AND v.candidate_id = c2.id " +
+                "GROUP BY c2.id) t " +
+                "WHERE c.id = t.id AND c.vote_count IS DISTINCT FROM t.votes";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error recounting votes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inserts the vote into the ledger inside the caller's transaction, taking its election
+     * from the candidate row. students.has_voted is kept as "voted in at least one election".
+     *
+     * @return false if the student already voted in that election or the key was already used
+     */
+    private boolean appendToLedger(Connection conn, Vote vote) throws SQLException, ResourceNotFoundException {
+        // Only the first vote ever flips the flag; later ones leave the student row untouched
+        String voterSql = "UPDATE students SET has_voted = true WHERE id = ? AND NOT has_voted";
+        String ledgerSql = "INSERT INTO votes (student_id, candidate_id, election_id, idempotency_key) " +
+                "SELECT ?, c.id, c.election_id, ? FROM candidates c WHERE c.id = ? " +
+                "ON CONFLICT DO NOTHING " +
+                "RETURNING id, election_id, cast_at";
+
+        try (PreparedStatement stmt = conn.prepareStatement(voterSql)) {
+            stmt.setInt(1, vote.getStudentId());
+            if (stmt.executeUpdate() == 0 && !studentExists(conn, vote.getStudentId())) {
+                throw new ResourceNotFoundException("Student not found with id: " + vote.getStudentId());
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(ledgerSql)) {
+            stmt.setInt(1, vote.getStudentId());
+            stmt.setString(2, vote.getIdempotencyKey());
+            stmt.setInt(3, vote.getCandidateId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    vote.setId(rs.getLong("id"));
+                    vote.setElectionId(rs.getInt("election_id"));
+                    vote.setCastAt(rs.getTimestamp("cast_at").toLocalDateTime());
+                    return true;
+                }
+            }
+        }
+
+        // Rejected: the election still tells the caller where to look for a retried key
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT election_id FROM candidates WHERE id = ?")) {
+            stmt.setInt(1, vote.getCandidateId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ResourceNotFoundException("Candidate not found with id: " + vote.getCandidateId());
+                }
+                vote.setElectionId(rs.getInt("election_id"));
+            }
+        }
+        return false;
+    }
+
+    private boolean studentExists(Connection conn, int studentId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM students WHERE id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private Vote mapResultSetToVote(ResultSet rs) throws SQLException {
+        return new Vote(
+                rs.getLong("id"),
+                rs.getInt("student_id"),
+                rs.getInt("candidate_id"),
+                rs.getInt("election_id"),
+                rs.getTimestamp("cast_at").toLocalDateTime(),
+                rs.getString("idempotency_key")
+        );
+    }
+}
@@ -2,8 +2,12 @@ package repository.interfaces;
 
 import exception.DatabaseOperationException;
 import exception.ResourceNotFoundException;
+import exception.UncheckedDatabaseOperationException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface CRUDRepository<T, ID> {
 
@@ -17,5 +21,43 @@ public interface CRUDRepository<T, ID> {
 
     void delete(ID id) throws ResourceNotFoundException, DatabaseOperationException;
 
-    boolean exists(ID id);
+    boolean exists(ID id) throws DatabaseOperationException;
+
+    /**
+     * Inserts all entities with JDBC batches in one transaction and sets their generated ids.
+     */
+    List<T> createAll(Collection<T> entities) throws DatabaseOperationException;
+
+    /**
+     * Updates all entities with JDBC batches in one transaction.
+     * Nothing is changed if any of them does not exist.
+     */
+    List<T> updateAll(Collection<T> entities) throws ResourceNotFoundException, DatabaseOperationException;
+
+    /**
+     * Deletes every entity with one of the given ids in a single statement.
+     *
+     * @return number of entities deleted
+     */
+    int deleteAllById(Collection<ID> ids) throws DatabaseOperationException;
+
+    /**
+     * Keyset pagination: up to limit entities with an id greater than afterId, in id order.
+     * Pass null for the first page and the last id of the previous page afterwards.
+     */
+    List<T> findPage(ID afterId, int limit) throws DatabaseOperationException;
+
+    /**
+     * Streams every entity in id order through a database cursor, so memory stays bounded.
+     * The stream holds a connection until it is closed.
+     */
+    Stream<T> streamAll() throws DatabaseOperationException;
+
+    default void forEachEntity(Consumer<? super T> action) throws DatabaseOperationException {
+        try (Stream<T> entities = streamAll()) {
+            entities.forEach(action);
+        } catch (UncheckedDatabaseOperationException e) {
+            throw e.getCause();
+        }
+    }
 }
\ No newline at end of file
@@ -4,10 +4,21 @@ import exception.DatabaseOperationException;
 import model.Candidate;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CandidateRepository extends CRUDRepository<Candidate, Integer> {
 
     List<Candidate> findByElectionId(int electionId) throws DatabaseOperationException;
 
     List<Candidate> findBymajor(String major) throws DatabaseOperationException;
+
+    // Page and stream variants go in id order, like findPage and streamAll
+
+    List<Candidate> findByElectionIdPage(int electionId, Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Candidate> streamByElectionId(int electionId) throws DatabaseOperationException;
+
+    List<Candidate> findBymajorPage(String major, Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Candidate> streamBymajor(String major) throws DatabaseOperationException;
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import exception.DatabaseOperationException;
 import model.Election;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface ElectionRepository extends CRUDRepository<Election, Integer> {
@@ -11,4 +12,14 @@ public interface ElectionRepository extends CRUDRepository<Election, Integer> {
     List<Election> findActiveElections() throws DatabaseOperationException;
 
     List<Election> findByAcademicYear(String academicYear) throws DatabaseOperationException;
+
+    // Page and stream variants go in id order, like findPage and streamAll
+
+    List<Election> findActiveElectionsPage(Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Election> streamActiveElections() throws DatabaseOperationException;
+
+    List<Election> findByAcademicYearPage(String academicYear, Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Election> streamByAcademicYear(String academicYear) throws DatabaseOperationException;
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import exception.ResourceNotFoundException;
 import model.Student;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends CRUDRepository<Student, Integer> {
 
@@ -15,4 +17,31 @@ public interface StudentRepository extends CRUDRepository<Student, Integer> {
     List<Student> findVotedStudents() throws DatabaseOperationException;
 
     List<Student> findNonVotedStudents() throws DatabaseOperationException;
+
+    List<Student> findBymajorPage(String major, Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Student> streamBymajor(String major) throws DatabaseOperationException;
+
+    List<Student> findVotedStudentsPage(Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Student> streamVotedStudents() throws DatabaseOperationException;
+
+    List<Student> findNonVotedStudentsPage(Integer afterId, int limit) throws DatabaseOperationException;
+
+    Stream<Student> streamNonVotedStudents() throws DatabaseOperationException;
+
+    List<Student> findByIds(int[] ids) throws DatabaseOperationException;
+
+    /**
+     * Students with no vote in the election, found with an anti-join on the votes ledger.
+     */
+    List<Student> findNonVotedStudents(int electionId) throws DatabaseOperationException;
+
+    /**
+     * Bulk loads students with PostgreSQL COPY. Rows whose student_id already exists are
+     * skipped in the same set-based statement that inserts the rest.
+     *
+     * @return student_ids that were actually inserted
+     */
+    Set<String> copyInNewStudents(List<Student> students) throws DatabaseOperationException;
 }
\ No newline at end of file
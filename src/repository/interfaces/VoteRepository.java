@@ -0,0 +1,84 @@
+package repository.interfaces;
+
+import exception.DatabaseOperationException;
+import exception.ResourceNotFoundException;
+import model.Vote;
+import model.VoteTally;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+public interface VoteRepository {
+
+    /**
+     * Appends the vote to the ledger and increments the candidate's vote count in one
+     * transaction. On success the vote's id, election and timestamp are filled in. Only used
+     * when votes.writeBehind is off; otherwise votes go through {@link #recordVote}.
+     *
+     * @return false if the student has already voted in the candidate's election or the
+     *         idempotency key was already used, in which case nothing is changed but the
+     *         vote's election is filled in
+     */
+    boolean castVote(Vote vote) throws ResourceNotFoundException, DatabaseOperationException;
+
+    /**
+     * Like {@link #castVote} but leaves candidates.vote_count alone, for callers that
+     * aggregate counts themselves and apply them with {@link #applyVoteCounts}.
+     */
+    boolean recordVote(Vote vote) throws ResourceNotFoundException, DatabaseOperationException;
+
+    /**
+     * Appends already validated votes to the ledger, one multi-row INSERT per batch size.
+     * Votes whose idempotency key is already present in their election are skipped, and
+     * votes without a cast time are stamped with the database's current time.
+     *
+     * @return number of votes actually inserted
+     */
+    int saveAll(List<Vote> votes) throws DatabaseOperationException;
+
+    /**
+     * The vote recorded in the election under this key; keys are only unique per election.
+     */
+    Vote findByIdempotencyKey(int electionId, String idempotencyKey) throws ResourceNotFoundException, DatabaseOperationException;
+
+    /**
+     * Streams the ids of every student who voted in the election.
+     */
+    void forEachVoterId(int electionId, IntConsumer consumer) throws DatabaseOperationException;
+
+    /**
+     * Counts the election's votes per candidate from the ledger.
+     */
+    VoteTally tallyVotes(int electionId) throws DatabaseOperationException;
+
+    /**
+     * Streams every ledger entry of the election in id order without loading them all into memory.
+     */
+    void streamVotes(int electionId, Consumer<Vote> consumer) throws DatabaseOperationException;
+
+    /**
+     * Adds the given per-candidate deltas to candidates.vote_count in one batched transaction,
+     * recording batchId so the same batch is never applied twice.
+     */
+    void applyVoteCounts(Map<Integer, Long> deltas, String batchId) throws DatabaseOperationException;
+
+    boolean isBatchApplied(String batchId) throws DatabaseOperationException;
+
+    /**
+     * Sets the vote count of every candidate in the election to its number of ledger entries,
+     * in one transaction that locks the candidates first, so a vote committing meanwhile is
+     * either counted or increments the recounted total afterwards.
+     *
+     * @return the new vote count per candidate of the election
+     */
+    Map<Integer, Long> recountVoteCounts(int electionId) throws DatabaseOperationException;
+
+    /**
+     * Sets every candidate's vote count to its number of ledger entries in one statement.
+     *
+     * @return number of candidates whose count was wrong
+     */
+    int recountAllVoteCounts() throws DatabaseOperationException;
+}
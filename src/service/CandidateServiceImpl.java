@@ -2,6 +2,7 @@ package service;
 
 import exception.*;
 import model.Candidate;
+import model.CandidateStanding;
 import repository.interfaces.CandidateRepository;
 import service.interfaces.CandidateService;
 import utils.SortingUtils;
@@ -9,9 +10,11 @@ import java.util.List;
 
 public class CandidateServiceImpl implements CandidateService {
     private final CandidateRepository candidateRepository;
+    private final ResultsEngine resultsEngine;
 
-    public CandidateServiceImpl(CandidateRepository candidateRepository) {
+    public CandidateServiceImpl(CandidateRepository candidateRepository, ResultsEngine resultsEngine) {
         this.candidateRepository = candidateRepository;
+        this.resultsEngine = resultsEngine;
     }
 
     @Override
@@ -19,7 +22,9 @@ public class CandidateServiceImpl implements CandidateService {
         if (!candidate.validate()) {
             throw new InvalidInputException(candidate.getValidationMessage());
         }
-        return candidateRepository.create(candidate);
+        Candidate created = candidateRepository.create(candidate);
+        resultsEngine.invalidate(created.getElection().getId());
+        return created;
     }
 
     @Override
@@ -37,12 +42,18 @@ public class CandidateServiceImpl implements CandidateService {
         if (!candidate.validate()) {
             throw new InvalidInputException(candidate.getValidationMessage());
         }
-        return candidateRepository.update(candidate);
+        Candidate previous = candidateRepository.findById(candidate.getId());
+        Candidate updated = candidateRepository.update(candidate);
+        resultsEngine.invalidate(previous.getElection().getId());
+        resultsEngine.invalidate(updated.getElection().getId());
+        return updated;
     }
 
     @Override
     public void deleteCandidate(int id) throws ResourceNotFoundException, DatabaseOperationException {
+        Candidate candidate = candidateRepository.findById(id);
         candidateRepository.delete(id);
+        resultsEngine.invalidate(candidate.getElection().getId());
     }
 
     @Override
@@ -60,4 +71,12 @@ public class CandidateServiceImpl implements CandidateService {
         List<Candidate> candidates = candidateRepository.findAll();
         return SortingUtils.sortCandidatesByVotes(candidates); // Using lambda
     }
+
+    @Override
+    public List<CandidateStanding> getLeaderboard(int electionId, int limit) throws InvalidInputException, DatabaseOperationException {
+        if (limit < 1) {
+            throw new InvalidInputException("Leaderboard limit must be positive: " + limit);
+        }
+        return resultsEngine.getLeaderboard(electionId, limit);
+    }
 }
\ No newline at end of file
@@ -4,17 +4,33 @@ import exception.*;
 import model.Election;
 import model.interfaces.Validatable;
 import repository.interfaces.ElectionRepository;
+import repository.interfaces.VoteRepository;
 import service.interfaces.ElectionService;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public class ElectionServiceImpl implements ElectionService {
 
     private final ElectionRepository electionRepository;
+    private final VoteRepository voteRepository;
+    private final VoteAggregator voteAggregator;
 
-    public ElectionServiceImpl(ElectionRepository electionRepository) {
+    public ElectionServiceImpl(ElectionRepository electionRepository, VoteRepository voteRepository) {
+        this(electionRepository, voteRepository, null);
+    }
+
+    /**
+     * With the VoteAggregator that writes vote counts behind, recounts first apply its
+     * pending deltas and hold off new votes while they run.
+     */
+    public ElectionServiceImpl(ElectionRepository electionRepository, VoteRepository voteRepository,
+                               VoteAggregator voteAggregator) {
         this.electionRepository = electionRepository;
+        this.voteRepository = voteRepository;
+        this.voteAggregator = voteAggregator;
     }
 
     @Override
@@ -72,6 +88,25 @@ public class ElectionServiceImpl implements ElectionService {
         return electionRepository.findByAcademicYear(academicYear);
     }
 
+    /**
+     * Sets every candidate's vote count in the election to its number of ledger entries.
+     */
+    @Override
+    public Map<Integer, Long> recountVotes(int electionId) throws ResourceNotFoundException, DatabaseOperationException {
+        if (!electionRepository.exists(electionId)) {
+            throw new ResourceNotFoundException("Election not found with id: " + electionId);
+        }
+
+        if (voteAggregator == null) {
+            return voteRepository.recountVoteCounts(electionId);
+        }
+        try {
+            return voteAggregator.recount(electionId);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error flushing vote counts before recount: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Private validation method - SRP
      * Validates election business rules
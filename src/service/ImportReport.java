@@ -0,0 +1,70 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk roster import: how many rows were read and loaded, and why the rest were rejected.
+ */
+public class ImportReport {
+    private int totalRows;
+    private int importedRows;
+    private final List<RejectedRow> rejectedRows = new ArrayList<>();
+
+    public void addRows(int rows) {
+        totalRows += rows;
+    }
+
+    public void addImported(int rows) {
+        importedRows += rows;
+    }
+
+    public void reject(int lineNumber, String reason) {
+        rejectedRows.add(new RejectedRow(lineNumber, reason));
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getImportedRows() {
+        return importedRows;
+    }
+
+    public List<RejectedRow> getRejectedRows() {
+        return Collections.unmodifiableList(rejectedRows);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "totalRows=" + totalRows +
+                ", importedRows=" + importedRows +
+                ", rejectedRows=" + rejectedRows.size() +
+                '}';
+    }
+
+    public static class RejectedRow {
+        private final int lineNumber;
+        private final String reason;
+
+        public RejectedRow(int lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + reason;
+        }
+    }
+}
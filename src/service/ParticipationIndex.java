@@ -0,0 +1,84 @@
+package service;
+
+import exception.DatabaseOperationException;
+import repository.interfaces.VoteRepository;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of which students voted in which election, one bitmap per election
+ * indexed by student id. An election's bitmap is loaded from the votes ledger the first
+ * time it is needed and kept current by {@link #markVoted} afterwards.
+ */
+public class ParticipationIndex {
+    private final VoteRepository voteRepository;
+    private final Map<Integer, ElectionVoters> elections = new ConcurrentHashMap<>();
+
+    public ParticipationIndex(VoteRepository voteRepository) {
+        this.voteRepository = voteRepository;
+    }
+
+    public boolean hasVoted(int electionId, int studentId) throws DatabaseOperationException {
+        return voters(electionId).contains(studentId);
+    }
+
+    public void markVoted(int electionId, int studentId) throws DatabaseOperationException {
+        voters(electionId).add(studentId);
+    }
+
+    public int countVoted(int electionId) throws DatabaseOperationException {
+        return voters(electionId).count();
+    }
+
+    /**
+     * Ids of every student who voted in the election, in ascending order.
+     */
+    public int[] getVoterIds(int electionId) throws DatabaseOperationException {
+        return voters(electionId).toArray();
+    }
+
+    /**
+     * Drops the election's bitmap so the next access reloads it from the ledger.
+     */
+    public void invalidate(int electionId) {
+        elections.remove(electionId);
+    }
+
+    private ElectionVoters voters(int electionId) throws DatabaseOperationException {
+        ElectionVoters voters = elections.get(electionId);
+        if (voters != null) {
+            return voters;
+        }
+
+        ElectionVoters loaded = new ElectionVoters();
+        voteRepository.forEachVoterId(electionId, loaded::add);
+        ElectionVoters existing = elections.putIfAbsent(electionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static class ElectionVoters {
+        private final BitSet bits = new BitSet();
+        private int count = 0;
+
+        synchronized boolean contains(int studentId) {
+            return bits.get(studentId);
+        }
+
+        synchronized void add(int studentId) {
+            if (!bits.get(studentId)) {
+                bits.set(studentId);
+                count++;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int[] toArray() {
+            return bits.stream().toArray();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package service;
+
+import exception.DatabaseOperationException;
+import model.Candidate;
+import model.CandidateStanding;
+import model.Vote;
+import model.VoteTally;
+import repository.interfaces.CandidateRepository;
+import repository.interfaces.VoteRepository;
+import service.interfaces.VoteListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * Live election results kept in memory.
+ *
+ * An election's standings are loaded from the votes ledger the first time they are asked for
+ * and then updated per vote by {@link #onVoteCast} - each vote re-positions one candidate in an
+ * ordered set, O(log n), so reading the top K costs O(K) and never touches the database.
+ *
+ * A vote that commits while its election is being loaded, but with a lower ledger id than the
+ * newest vote the load saw, is missed until {@link #invalidate}; use
+ * {@link ElectionServiceImpl#recountVotes} for authoritative totals.
+ */
+public class ResultsEngine implements VoteListener {
+    private static final Comparator<CandidateStanding> BY_VOTES =
+            Comparator.comparingLong(CandidateStanding::getVotes).reversed()
+                    .thenComparingInt(CandidateStanding::getCandidateId);
+
+    private final CandidateRepository candidateRepository;
+    private final VoteRepository voteRepository;
+    private final Map<Integer, ElectionResults> elections = new ConcurrentHashMap<>();
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    public ResultsEngine(CandidateRepository candidateRepository, VoteRepository voteRepository) {
+        this.candidateRepository = candidateRepository;
+        this.voteRepository = voteRepository;
+    }
+
+    /**
+     * The election's top candidates by votes, ties broken by candidate id.
+     */
+    public List<CandidateStanding> getLeaderboard(int electionId, int limit) throws DatabaseOperationException {
+        return results(electionId).top(limit);
+    }
+
+    public List<CandidateStanding> getStandings(int electionId) throws DatabaseOperationException {
+        return results(electionId).top(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Registers a callback that gets the election id whenever that election's standings change.
+     * Called on the voting thread, so it must not block.
+     */
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void onVoteCast(Vote vote) {
+        // Elections nobody has asked about yet pick the vote up from the ledger when loaded
+        ElectionResults results = elections.get(vote.getElectionId());
+        if (results == null) {
+            return;
+        }
+
+        boolean unknownCandidate;
+        synchronized (results) {
+            if (!results.loaded) {
+                results.pending.add(vote);
+                return;
+            }
+            unknownCandidate = !results.apply(vote);
+        }
+        if (unknownCandidate) {
+            // Candidate added after the load - start over from the ledger
+            invalidate(vote.getElectionId());
+        } else {
+            fireChanged(vote.getElectionId());
+        }
+    }
+
+    /**
+     * Drops the election's standings so the next read reloads them from the ledger.
+     * Call after candidates of the election are added, changed or removed.
+     */
+    public void invalidate(int electionId) {
+        elections.remove(electionId);
+        fireChanged(electionId);
+    }
+
+    private void fireChanged(int electionId) {
+        for (IntConsumer listener : changeListeners) {
+            listener.accept(electionId);
+        }
+    }
+
+    private ElectionResults results(int electionId) throws DatabaseOperationException {
+        // Registered before loading so votes cast during the load are buffered, not dropped
+        ElectionResults results = elections.computeIfAbsent(electionId, id -> new ElectionResults());
+
+        synchronized (results) {
+            if (!results.loaded) {
+                try {
+                    results.load(electionId);
+                } catch (DatabaseOperationException | RuntimeException e) {
+                    elections.remove(electionId, results);
+                    throw e;
+                }
+            }
+        }
+        return results;
+    }
+
+    private class ElectionResults {
+        private final Map<Integer, CandidateStanding> byCandidate = new HashMap<>();
+        private final TreeSet<CandidateStanding> ranking = new TreeSet<>(BY_VOTES);
+        private final List<Vote> pending = new ArrayList<>();
+        private long lastVoteId;
+        private boolean loaded = false;
+
+        private void load(int electionId) throws DatabaseOperationException {
+            VoteTally tally = voteRepository.tallyVotes(electionId);
+            for (Candidate candidate : candidateRepository.findByElectionId(electionId)) {
+                CandidateStanding standing = new CandidateStanding(candidate.getId(), candidate.getName(),
+                        electionId, tally.getCount(candidate.getId()));
+                byCandidate.put(standing.getCandidateId(), standing);
+                ranking.add(standing);
+            }
+            lastVoteId = tally.getLastVoteId();
+            loaded = true;
+
+            for (Vote vote : pending) {
+                apply(vote);
+            }
+            pending.clear();
+        }
+
+        /**
+         * @return false if the vote is for a candidate these standings don't know
+         */
+        private boolean apply(Vote vote) {
+            if (vote.getId() <= lastVoteId) {
+                return true; // already counted by the load
+            }
+            CandidateStanding current = byCandidate.get(vote.getCandidateId());
+            if (current == null) {
+                return false;
+            }
+            CandidateStanding updated = current.withVotes(current.getVotes() + 1);
+            ranking.remove(current);
+            ranking.add(updated);
+            byCandidate.put(updated.getCandidateId(), updated);
+            return true;
+        }
+
+        private synchronized List<CandidateStanding> top(int limit) {
+            List<CandidateStanding> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<CandidateStanding> iterator = ranking.iterator();
+            while (top.size() < limit && iterator.hasNext()) {
+                top.add(iterator.next());
+            }
+            return top;
+        }
+    }
+}
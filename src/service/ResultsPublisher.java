@@ -0,0 +1,117 @@
+package service;
+
+import exception.DatabaseOperationException;
+import model.CandidateStanding;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes live standings to subscribers instead of having them poll.
+ *
+ * Votes only mark their election as changed; a ticker publishes at most one snapshot per
+ * election per interval, read from the {@link ResultsEngine} rather than the database.
+ * Each item is the complete standings, so a subscriber that falls behind simply has
+ * snapshots dropped and catches up with the next one.
+ */
+public class ResultsPublisher implements AutoCloseable {
+    private static final int SUBSCRIBER_BUFFER = 4;
+
+    private final ResultsEngine resultsEngine;
+    private final Map<Integer, SubmissionPublisher<List<CandidateStanding>>> publishers = new ConcurrentHashMap<>();
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private ScheduledFuture<?> tick;
+
+    public ResultsPublisher(ResultsEngine resultsEngine, long intervalMillis) {
+        this.resultsEngine = resultsEngine;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "results-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resultsEngine.addChangeListener(electionId -> {
+            if (publishers.containsKey(electionId)) {
+                changed.add(electionId);
+            }
+        });
+        setIntervalMillis(intervalMillis);
+    }
+
+    /**
+     * Changes how often snapshots are published, taking effect from the next tick.
+     */
+    public synchronized void setIntervalMillis(long intervalMillis) {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid publish interval: " + intervalMillis);
+        }
+        if (tick != null) {
+            tick.cancel(false);
+        }
+        tick = ticker.scheduleAtFixedRate(this::publishChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes to an election's standings. The current standings arrive with the next tick.
+     */
+    public void subscribe(int electionId, Flow.Subscriber<? super List<CandidateStanding>> subscriber) {
+        publishers.compute(electionId, (id, publisher) -> {
+            if (publisher == null) {
+                publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), SUBSCRIBER_BUFFER);
+            }
+            publisher.subscribe(subscriber);
+            return publisher;
+        });
+        changed.add(electionId);
+    }
+
+    public int getSubscriberCount(int electionId) {
+        SubmissionPublisher<List<CandidateStanding>> publisher = publishers.get(electionId);
+        return publisher == null ? 0 : publisher.getNumberOfSubscribers();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        publishers.values().forEach(SubmissionPublisher::close);
+        publishers.clear();
+    }
+
+    private void publishChanged() {
+        for (Integer electionId : changed) {
+            changed.remove(electionId);
+
+            // Elections whose last subscriber went away stop being published
+            SubmissionPublisher<List<CandidateStanding>> publisher = publishers.computeIfPresent(electionId,
+                    (id, existing) -> {
+                        if (existing.hasSubscribers()) {
+                            return existing;
+                        }
+                        existing.close();
+                        return null;
+                    });
+            if (publisher == null) {
+                continue;
+            }
+
+            try {
+                List<CandidateStanding> standings = resultsEngine.getStandings(electionId);
+                // Drop rather than block when a subscriber's buffer is full
+                publisher.offer(standings, (subscriber, dropped) -> false);
+            } catch (DatabaseOperationException | RuntimeException e) {
+                // One failing election must neither stop the others nor kill the ticker
+                changed.add(electionId);
+                System.err.println("✗ Error publishing results for election " + electionId + ": " + e.getMessage());
+            }
+        }
+    }
+}
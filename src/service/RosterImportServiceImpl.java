@@ -0,0 +1,179 @@
+package service;
+
+import exception.DatabaseOperationException;
+import model.Student;
+import repository.interfaces.StudentRepository;
+import service.interfaces.RosterImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class RosterImportServiceImpl implements RosterImportService {
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final StudentRepository studentRepository;
+
+    public RosterImportServiceImpl(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    @Override
+    public ImportReport importRoster(Reader roster) throws IOException, DatabaseOperationException {
+        ImportReport report = new ImportReport();
+        Set<String> seenStudentIds = new HashSet<>();
+        List<RosterRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(roster);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int firstLine = lineNumber;
+            if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("name,"))) {
+                continue;
+            }
+
+            // A quoted field may contain line breaks; the record goes on until its quotes balance
+            StringBuilder record = new StringBuilder(line);
+            int quotes = countQuotes(line);
+            while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+                lineNumber++;
+                record.append('\n').append(line);
+                quotes += countQuotes(line);
+            }
+            if (quotes % 2 != 0) {
+                chunk.add(new RosterRow(firstLine, null));
+            } else {
+                chunk.add(new RosterRow(firstLine, record.toString()));
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, seenStudentIds, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenStudentIds, report);
+        }
+        return report;
+    }
+
+    private void importChunk(List<RosterRow> chunk, Set<String> seenStudentIds, ImportReport report)
+            throws DatabaseOperationException {
+        report.addRows(chunk.size());
+
+        // Parsing and Student.validate() are independent per row
+        chunk.parallelStream().forEach(RosterRow::parseAndValidate);
+
+        List<Student> students = new ArrayList<>(chunk.size());
+        List<RosterRow> accepted = new ArrayList<>(chunk.size());
+        for (RosterRow row : chunk) {
+            if (row.error != null) {
+                report.reject(row.lineNumber, row.error);
+            } else if (!seenStudentIds.add(row.student.getStudentId())) {
+                report.reject(row.lineNumber, "Duplicate student ID in roster: " + row.student.getStudentId());
+            } else {
+                students.add(row.student);
+                accepted.add(row);
+            }
+        }
+        if (students.isEmpty()) {
+            return;
+        }
+
+        Set<String> inserted = studentRepository.copyInNewStudents(students);
+        report.addImported(inserted.size());
+        for (RosterRow row : accepted) {
+            if (!inserted.contains(row.student.getStudentId())) {
+                report.reject(row.lineNumber, "Student with ID " + row.student.getStudentId() + " already exists");
+            }
+        }
+    }
+
+    // "" escapes add two quotes, so an odd total means a quoted field is still open
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with "" escapes and line breaks.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static class RosterRow {
+        private final int lineNumber;
+        private final String line;
+        private Student student;
+        private String error;
+
+        private RosterRow(int lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        private void parseAndValidate() {
+            if (line == null) {
+                error = "Quoted field is not closed before the end of the roster";
+                return;
+            }
+            List<String> fields = splitCsv(line);
+            if (fields.size() != 4) {
+                error = "Expected 4 columns but found " + fields.size();
+                return;
+            }
+
+            int yearOfStudy;
+            try {
+                yearOfStudy = Integer.parseInt(fields.get(3));
+            } catch (NumberFormatException e) {
+                error = "Invalid year of study: " + fields.get(3);
+                return;
+            }
+
+            Student parsed = new Student(0, fields.get(0), fields.get(1), fields.get(2), yearOfStudy);
+            if (!parsed.validate()) {
+                error = parsed.getValidationMessage();
+                return;
+            }
+            student = parsed;
+        }
+    }
+}
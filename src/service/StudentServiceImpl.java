@@ -1,20 +1,41 @@
 package service;
 
 import exception.*;
-import model.Candidate;
 import model.Student;
-import repository.interfaces.CandidateRepository;
+import model.Vote;
+import model.interfaces.Validatable;
 import repository.interfaces.StudentRepository;
+import repository.interfaces.VoteRepository;
 import service.interfaces.StudentService;
+import service.interfaces.VoteListener;
+import utils.SqlErrors;
+
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
 
 public class StudentServiceImpl implements StudentService {
     private final StudentRepository studentRepository;
-    private final CandidateRepository candidateRepository;
+    private final VoteRepository voteRepository;
+    private final VoteAggregator voteAggregator;
+    private final ParticipationIndex participationIndex;
+    private final List<VoteListener> voteListeners = new CopyOnWriteArrayList<>();
+
+    public StudentServiceImpl(StudentRepository studentRepository, VoteRepository voteRepository) {
+        this(studentRepository, voteRepository, null);
+    }
 
-    public StudentServiceImpl(StudentRepository studentRepository, CandidateRepository candidateRepository) {
+    /**
+     * With a VoteAggregator, vote counts are written behind in batches instead of per vote.
+     */
+    public StudentServiceImpl(StudentRepository studentRepository, VoteRepository voteRepository,
+                              VoteAggregator voteAggregator) {
         this.studentRepository = studentRepository;
-        this.candidateRepository = candidateRepository;
+        this.voteRepository = voteRepository;
+        this.voteAggregator = voteAggregator;
+        this.participationIndex = new ParticipationIndex(voteRepository);
     }
 
     @Override
@@ -30,7 +51,15 @@ public class StudentServiceImpl implements StudentService {
             // Good - student doesn't exist
         }
 
-        return studentRepository.create(student);
+        try {
+            return studentRepository.create(student);
+        } catch (DatabaseOperationException e) {
+            // The check above may read a lagging replica; the unique key on the primary decides
+            if (SqlErrors.isUniqueViolation(e)) {
+                throw new DuplicateResourceException("Student with ID " + student.getStudentId() + " already exists");
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -77,21 +106,100 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public void castVote(int studentId, int candidateId) throws ResourceNotFoundException, InvalidInputException, DatabaseOperationException {
+    public List<Student> getVotedStudents(int electionId) throws DatabaseOperationException {
+        return studentRepository.findByIds(participationIndex.getVoterIds(electionId));
+    }
+
+    @Override
+    public List<Student> getNonVotedStudents(int electionId) throws DatabaseOperationException {
+        return studentRepository.findNonVotedStudents(electionId);
+    }
+
+    @Override
+    public boolean canVote(int studentId, int electionId) throws ResourceNotFoundException, DatabaseOperationException {
         Student student = studentRepository.findById(studentId);
+        return student.isEligible() && !participationIndex.hasVoted(electionId, studentId);
+    }
+
+    @Override
+    public void castVote(int studentId, int candidateId) throws ResourceNotFoundException, InvalidInputException, DatabaseOperationException {
+        castVote(studentId, candidateId, "student-" + studentId + "-candidate-" + candidateId);
+    }
 
-        if (!student.canVote()) {
-            throw new InvalidInputException("Student cannot vote: " + student.getVoteStatusDescription());
+    @Override
+    public Vote castVote(int studentId, int candidateId, String idempotencyKey) throws ResourceNotFoundException, InvalidInputException, DatabaseOperationException {
+        if (!Validatable.isValidString(idempotencyKey)) {
+            throw new InvalidInputException("Idempotency key is required");
+        }
+        Vote vote = new Vote(studentId, candidateId, idempotencyKey);
+
+        // Single transaction: ledger insert guarded by one vote per student per election
+        // (+ vote_count increment unless the aggregator writes counts behind)
+        boolean recorded;
+        if (voteAggregator == null) {
+            recorded = voteRepository.castVote(vote);
+        } else {
+            Lock voteLock = voteAggregator.voteLock();
+            voteLock.lock();
+            try {
+                recorded = voteRepository.recordVote(vote);
+                if (recorded) {
+                    countVote(vote);
+                }
+            } finally {
+                voteLock.unlock();
+            }
+        }
+
+        if (!recorded) {
+            return findRetriedVote(vote);
         }
 
-        Candidate candidate = candidateRepository.findById(candidateId);
+        participationIndex.markVoted(vote.getElectionId(), studentId);
+
+        for (VoteListener listener : voteListeners) {
+            listener.onVoteCast(vote);
+        }
+        return vote;
+    }
+
+    @Override
+    public void addVoteListener(VoteListener listener) {
+        voteListeners.add(listener);
+    }
 
-        // Mark student as voted
-        student.vote();
-        studentRepository.update(student);
+    /**
+     * Hands a committed vote to the aggregator. The vote is already in the ledger, so a
+     * journal failure must not fail the request: the count is then applied directly, and if
+     * that fails too, the next recovery recounts it from the ledger.
+     */
+    private void countVote(Vote vote) {
+        try {
+            voteAggregator.record(vote.getCandidateId());
+        } catch (IOException journalError) {
+            System.err.println("✗ Error journaling vote " + vote.getId() + ", counting it directly: " +
+                    journalError.getMessage());
+            try {
+                voteRepository.applyVoteCounts(Map.of(vote.getCandidateId(), 1L), "vote-" + vote.getId());
+            } catch (DatabaseOperationException e) {
+                System.err.println("✗ Vote " + vote.getId() + " is not counted until the next recovery: " +
+                        e.getMessage());
+            }
+        }
+    }
 
-        // Increment candidate vote count
-        candidate.incrementVoteCount();
-        candidateRepository.update(candidate);
+    /**
+     * A retried request with the same key, student and candidate gets the original vote back.
+     */
+    private Vote findRetriedVote(Vote vote) throws InvalidInputException, DatabaseOperationException {
+        try {
+            Vote recorded = voteRepository.findByIdempotencyKey(vote.getElectionId(), vote.getIdempotencyKey());
+            if (recorded.getStudentId() == vote.getStudentId() && recorded.getCandidateId() == vote.getCandidateId()) {
+                return recorded;
+            }
+        } catch (ResourceNotFoundException e) {
+            // Not a retry - the student voted under a different key
+        }
+        throw new InvalidInputException("Student cannot vote: Already voted or ineligible");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package service;
+
+import exception.DatabaseOperationException;
+import repository.interfaces.VoteRepository;
+import utils.VoteJournal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind accumulator for candidate vote counts.
+ *
+ * Votes are journaled to local files and counted in per-candidate LongAdders, and the
+ * accumulated deltas are applied to candidates.vote_count in one JDBC batch every
+ * flush interval or once the flush threshold is reached. Each segment is applied under
+ * its own batch id, so a flush retried after a failure never counts a vote twice.
+ *
+ * The votes ledger, not the journal, is the record of acknowledged votes: a vote is
+ * committed there before it is journaled. After a crash {@link #recover()} rebuilds the
+ * counts from the ledger, which also covers votes committed but never journaled.
+ */
+public class VoteAggregator implements AutoCloseable {
+    private final VoteRepository voteRepository;
+    private final VoteJournal journal;
+    private final int flushThreshold;
+    private final Map<Integer, LongAdder> pendingVotes = new ConcurrentHashMap<>();
+    private final AtomicLong pendingTotal = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ReadWriteLock recountLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService flusher;
+
+    public VoteAggregator(VoteRepository voteRepository, Path journalDirectory,
+                          long flushIntervalMillis, int flushThreshold) throws IOException {
+        this.voteRepository = voteRepository;
+        this.journal = new VoteJournal(journalDirectory);
+        this.flushThreshold = flushThreshold;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "vote-aggregator-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records one vote for the candidate, which must already be committed to the ledger.
+     */
+    public void record(int candidateId) throws IOException {
+        // Count first: a flush that rotates right after the append subtracts this vote again
+        LongAdder pending = pendingVotes.computeIfAbsent(candidateId, id -> new LongAdder());
+        pending.increment();
+        long total = pendingTotal.incrementAndGet();
+        try {
+            journal.append(candidateId);
+        } catch (IOException e) {
+            pending.decrement();
+            pendingTotal.decrementAndGet();
+            throw e;
+        }
+
+        if (total >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Hold while a vote goes from the ledger insert to {@link #record}, so a recount never
+     * counts a vote from the ledger that its pending delta would then add a second time.
+     */
+    public Lock voteLock() {
+        return recountLock.readLock();
+    }
+
+    /**
+     * Recounts the election's candidates from the ledger with no vote in flight and every
+     * pending delta applied first.
+     *
+     * @return the new vote count per candidate of the election
+     */
+    public Map<Integer, Long> recount(int electionId) throws IOException, DatabaseOperationException {
+        Lock lock = recountLock.writeLock();
+        lock.lock();
+        try {
+            flush();
+            return voteRepository.recountVoteCounts(electionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Votes recorded for the candidate that have not reached the database yet.
+     */
+    public long getPendingVotes(int candidateId) {
+        LongAdder adder = pendingVotes.get(candidateId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Drops journal segments left behind by a previous run and recounts every candidate from
+     * the ledger. Call once before accepting votes.
+     */
+    public synchronized void recover() throws IOException, DatabaseOperationException {
+        // Their votes are in the ledger, which the recount below reads
+        for (String segmentId : journal.closedSegments()) {
+            if (!journal.isOwnSegment(segmentId)) {
+                journal.deleteSegment(segmentId);
+            }
+        }
+        int corrected = voteRepository.recountAllVoteCounts();
+        if (corrected > 0) {
+            System.out.println("Recovered vote counts of " + corrected + " candidate(s) from the ledger");
+        }
+    }
+
+    /**
+     * Rotates the journal and applies every closed segment to the database.
+     */
+    public synchronized void flush() throws IOException, DatabaseOperationException {
+        flushRequested.set(false);
+        applySegments(journal.rotate());
+    }
+
+    @Override
+    public void close() throws IOException, DatabaseOperationException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        journal.close();
+    }
+
+    private synchronized void applySegments(List<String> segmentIds) throws IOException, DatabaseOperationException {
+        for (String segmentId : segmentIds) {
+            Map<Integer, Long> deltas = journal.readSegment(segmentId);
+
+            // A previous flush may have committed without its segment being deleted
+            if (!deltas.isEmpty() && !voteRepository.isBatchApplied(segmentId)) {
+                voteRepository.applyVoteCounts(deltas, segmentId);
+            }
+
+            if (journal.isOwnSegment(segmentId)) {
+                deltas.forEach((candidateId, count) -> {
+                    pendingVotes.computeIfAbsent(candidateId, id -> new LongAdder()).add(-count);
+                    pendingTotal.addAndGet(-count);
+                });
+            }
+            journal.deleteSegment(segmentId);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | DatabaseOperationException | RuntimeException e) {
+            // Anything escaping would cancel the periodic flush for good
+            System.err.println("✗ Error flushing vote counts: " + e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package service.interfaces;
 
 import exception.*;
 import model.Candidate;
+import model.CandidateStanding;
 import java.util.List;
 
 public interface CandidateService {
@@ -13,4 +14,5 @@ public interface CandidateService {
     List<Candidate> getCandidatesByElection(int electionId) throws DatabaseOperationException;
     List<Candidate> getCandidatesBymajor(String major) throws DatabaseOperationException;
     List<Candidate> getCandidatesSortedByVotes() throws DatabaseOperationException;
+    List<CandidateStanding> getLeaderboard(int electionId, int limit) throws InvalidInputException, DatabaseOperationException;
 }
\ No newline at end of file
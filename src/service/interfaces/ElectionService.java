@@ -6,6 +6,7 @@ import exception.ResourceNotFoundException;
 import model.Election;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ElectionService {
     Election createElection(Election election) throws InvalidInputException, DatabaseOperationException;
@@ -15,4 +16,5 @@ public interface ElectionService {
     void deleteElection(int id) throws ResourceNotFoundException, DatabaseOperationException;
     List<Election> getActiveElections() throws DatabaseOperationException;
     List<Election> getElectionsByAcademicYear(String academicYear) throws DatabaseOperationException;
+    Map<Integer, Long> recountVotes(int electionId) throws ResourceNotFoundException, DatabaseOperationException;
 }
\ No newline at end of file
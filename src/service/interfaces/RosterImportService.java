@@ -0,0 +1,17 @@
+package service.interfaces;
+
+import exception.DatabaseOperationException;
+import service.ImportReport;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface RosterImportService {
+
+    /**
+     * Imports a CSV roster with the columns name, student_id, major, year_of_study.
+     * A header row is optional, and quoted fields may span lines. Invalid and duplicate rows
+     * are reported by the line they start on, not thrown.
+     */
+    ImportReport importRoster(Reader roster) throws IOException, DatabaseOperationException;
+}
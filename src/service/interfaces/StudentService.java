@@ -2,6 +2,7 @@ package service.interfaces;
 
 import exception.*;
 import model.Student;
+import model.Vote;
 import java.util.List;
 
 public interface StudentService {
@@ -14,5 +15,10 @@ public interface StudentService {
     List<Student> getStudentsBymajor(String major) throws DatabaseOperationException;
     List<Student> getVotedStudents() throws DatabaseOperationException;
     List<Student> getNonVotedStudents() throws DatabaseOperationException;
+    List<Student> getVotedStudents(int electionId) throws DatabaseOperationException;
+    List<Student> getNonVotedStudents(int electionId) throws DatabaseOperationException;
+    boolean canVote(int studentId, int electionId) throws ResourceNotFoundException, DatabaseOperationException;
     void castVote(int studentId, int candidateId) throws ResourceNotFoundException, InvalidInputException, DatabaseOperationException;
+    Vote castVote(int studentId, int candidateId, String idempotencyKey) throws ResourceNotFoundException, InvalidInputException, DatabaseOperationException;
+    void addVoteListener(VoteListener listener);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package service.interfaces;
+
+import model.Vote;
+
+@FunctionalInterface
+public interface VoteListener {
+
+    /**
+     * Called after a new vote has been committed. Retried requests are not reported again.
+     */
+    void onVoteCast(Vote vote);
+}
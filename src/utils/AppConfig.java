@@ -0,0 +1,399 @@
+package utils;
+
+import exception.ConfigurationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Typed, validated application settings.
+ *
+ * Each key is looked up in order of precedence:
+ *   1. system property, e.g. -Dpool.maxSize=20
+ *   2. environment variable, ELECTION_ + the key upper-cased with dots as underscores,
+ *      e.g. ELECTION_POOL_MAXSIZE=20
+ *   3. the properties file named by -Dconfig.file or ELECTION_CONFIG_FILE
+ *      (default ./election.properties, which may be absent)
+ *   4. the built-in default
+ *
+ * A snapshot never changes; {@link ConfigReloader} hands out a new one when the file changes.
+ * Only the keys in {@link #RELOADABLE} take effect without a restart.
+ */
+public class AppConfig {
+    public static final String FILE_PROPERTY = "config.file";
+    public static final String ENV_PREFIX = "ELECTION_";
+    public static final Path DEFAULT_FILE = Path.of("election.properties");
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("db.url", "jdbc:postgresql://localhost:5434/waflya?reWriteBatchedInserts=true");
+        DEFAULTS.put("db.user", "postgres");
+        DEFAULTS.put("db.password", "waflya");
+        DEFAULTS.put("db.replicas", "");
+        DEFAULTS.put("db.replicaMaxLagMillis", "5000");
+        DEFAULTS.put("pool.minSize", "2");
+        DEFAULTS.put("pool.maxSize", "10");
+        DEFAULTS.put("pool.borrowTimeoutMillis", "5000");
+        DEFAULTS.put("pool.idleTimeoutMillis", "600000");
+        DEFAULTS.put("pool.leakDetectionThresholdMillis", "30000");
+        DEFAULTS.put("pool.statementCacheSize", "64");
+        DEFAULTS.put("pool.slowQueryThresholdMillis", "500");
+        DEFAULTS.put("jdbc.fetchSize", "500");
+        DEFAULTS.put("jdbc.batchSize", "500");
+        DEFAULTS.put("cache.elections.maxSize", "256");
+        DEFAULTS.put("cache.elections.ttlMillis", "600000");
+        DEFAULTS.put("metrics.slowCallThresholdMillis", "250");
+        DEFAULTS.put("results.publishIntervalMillis", "500");
+        DEFAULTS.put("requests.timeoutMillis", "30000");
+        DEFAULTS.put("http.port", "8080");
+        DEFAULTS.put("config.reloadIntervalMillis", "5000");
+        DEFAULTS.put("votes.writeBehind", "true");
+        DEFAULTS.put("votes.journalDir", "vote-journal");
+        DEFAULTS.put("votes.flushIntervalMillis", "1000");
+        DEFAULTS.put("votes.flushThreshold", "1000");
+    }
+
+    /**
+     * Keys whose new values are applied to the running application on reload.
+     */
+    public static final Set<String> RELOADABLE = Set.of(
+            "db.replicaMaxLagMillis",
+            "pool.minSize", "pool.maxSize", "pool.borrowTimeoutMillis", "pool.idleTimeoutMillis",
+            "pool.leakDetectionThresholdMillis", "pool.slowQueryThresholdMillis",
+            "jdbc.fetchSize", "jdbc.batchSize",
+            "cache.elections.maxSize", "cache.elections.ttlMillis",
+            "metrics.slowCallThresholdMillis", "results.publishIntervalMillis", "requests.timeoutMillis");
+
+    private final Map<String, String> values;
+    private final Path file;
+
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final List<String> replicaUrls;
+    private final long replicaMaxLagMillis;
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int statementCacheSize;
+    private final long slowQueryThresholdMillis;
+    private final int fetchSize;
+    private final int batchSize;
+    private final int electionCacheSize;
+    private final long electionCacheTtlMillis;
+    private final long slowCallThresholdMillis;
+    private final long publishIntervalMillis;
+    private final long requestTimeoutMillis;
+    private final int httpPort;
+    private final long reloadIntervalMillis;
+    private final boolean voteWriteBehind;
+    private final Path voteJournalDir;
+    private final long voteFlushIntervalMillis;
+    private final int voteFlushThreshold;
+
+    private AppConfig(Map<String, String> values, Path file) throws ConfigurationException {
+        this.values = Collections.unmodifiableMap(values);
+        this.file = file;
+        List<String> errors = new ArrayList<>();
+
+        dbUrl = values.get("db.url");
+        if (!dbUrl.startsWith("jdbc:postgresql:")) {
+            errors.add("db.url must be a jdbc:postgresql: URL, got " + dbUrl);
+        }
+        dbUser = values.get("db.user");
+        if (dbUser.isBlank()) {
+            errors.add("db.user must not be empty");
+        }
+        dbPassword = values.get("db.password");
+        replicaUrls = new ArrayList<>();
+        for (String url : values.get("db.replicas").split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            if (!url.trim().startsWith("jdbc:postgresql:")) {
+                errors.add("db.replicas must be jdbc:postgresql: URLs, got " + url.trim());
+            }
+            replicaUrls.add(url.trim());
+        }
+        replicaMaxLagMillis = parseLong(values, "db.replicaMaxLagMillis", 1, errors);
+
+        int reported = errors.size();
+        poolMinSize = parseInt(values, "pool.minSize", 0, errors);
+        poolMaxSize = parseInt(values, "pool.maxSize", 1, errors);
+        if (errors.size() == reported && poolMinSize > poolMaxSize) {
+            errors.add("pool.minSize (" + poolMinSize + ") must not exceed pool.maxSize (" + poolMaxSize + ")");
+        }
+        borrowTimeoutMillis = parseLong(values, "pool.borrowTimeoutMillis", 1, errors);
+        idleTimeoutMillis = parseLong(values, "pool.idleTimeoutMillis", 1, errors);
+        leakDetectionThresholdMillis = parseLong(values, "pool.leakDetectionThresholdMillis", 0, errors);
+        statementCacheSize = parseInt(values, "pool.statementCacheSize", 0, errors);
+        slowQueryThresholdMillis = parseLong(values, "pool.slowQueryThresholdMillis", 0, errors);
+
+        fetchSize = parseInt(values, "jdbc.fetchSize", 1, errors);
+        batchSize = parseInt(values, "jdbc.batchSize", 1, errors);
+        electionCacheSize = parseInt(values, "cache.elections.maxSize", 1, errors);
+        electionCacheTtlMillis = parseLong(values, "cache.elections.ttlMillis", 1, errors);
+        slowCallThresholdMillis = parseLong(values, "metrics.slowCallThresholdMillis", 0, errors);
+        publishIntervalMillis = parseLong(values, "results.publishIntervalMillis", 1, errors);
+        requestTimeoutMillis = parseLong(values, "requests.timeoutMillis", 1, errors);
+        httpPort = parseInt(values, "http.port", 1, errors);
+        if (httpPort > 65535) {
+            errors.add("http.port must be at most 65535, got " + httpPort);
+        }
+        reloadIntervalMillis = parseLong(values, "config.reloadIntervalMillis", 0, errors);
+        voteWriteBehind = parseBoolean(values, "votes.writeBehind", errors);
+        voteJournalDir = Path.of(values.get("votes.journalDir"));
+        voteFlushIntervalMillis = parseLong(values, "votes.flushIntervalMillis", 1, errors);
+        voteFlushThreshold = parseInt(values, "votes.flushThreshold", 1, errors);
+
+        if (!errors.isEmpty()) {
+            throw new ConfigurationException("Invalid configuration" + (file != null ? " (" + file + ")" : "") +
+                    ":\n  " + String.join("\n  ", errors));
+        }
+    }
+
+    /**
+     * Loads the settings from the system properties, the environment and the configured file.
+     */
+    public static AppConfig load() throws ConfigurationException {
+        return load(configFile(), System.getenv(), System.getProperties());
+    }
+
+    public static AppConfig load(Path file, Map<String, String> env, Properties system) throws ConfigurationException {
+        Properties fromFile = new Properties();
+        boolean fileExists = file != null && Files.exists(file);
+        if (fileExists) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                fromFile.load(reader);
+            } catch (IOException e) {
+                throw new ConfigurationException("Cannot read configuration file " + file + ": " + e.getMessage(), e);
+            }
+            for (String key : fromFile.stringPropertyNames()) {
+                if (!DEFAULTS.containsKey(key)) {
+                    System.err.println("✗ Unknown configuration key in " + file + ": " + key);
+                }
+            }
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : DEFAULTS.entrySet()) {
+            String key = entry.getKey();
+            String value = system.getProperty(key);
+            if (value == null) {
+                value = env.get(envName(key));
+            }
+            if (value == null) {
+                value = fromFile.getProperty(key);
+            }
+            values.put(key, value != null ? value.trim() : entry.getValue());
+        }
+        return new AppConfig(values, fileExists ? file : null);
+    }
+
+    /**
+     * The file named by -Dconfig.file or ELECTION_CONFIG_FILE, else ./election.properties.
+     */
+    public static Path configFile() {
+        String path = System.getProperty(FILE_PROPERTY, System.getenv(ENV_PREFIX + "CONFIG_FILE"));
+        return path != null ? Path.of(path) : DEFAULT_FILE;
+    }
+
+    // pool.maxSize -> ELECTION_POOL_MAXSIZE
+    static String envName(String key) {
+        return ENV_PREFIX + key.replace('.', '_').toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean parseBoolean(Map<String, String> values, String key, List<String> errors) {
+        String raw = values.get(key);
+        if (!raw.equalsIgnoreCase("true") && !raw.equalsIgnoreCase("false")) {
+            errors.add(key + " must be true or false, got '" + raw + "'");
+        }
+        return Boolean.parseBoolean(raw);
+    }
+
+    private static int parseInt(Map<String, String> values, String key, int min, List<String> errors) {
+        long value = parseLong(values, key, min, errors);
+        if (value > Integer.MAX_VALUE) {
+            errors.add(key + " is too large: " + value);
+            return min;
+        }
+        return (int) value;
+    }
+
+    private static long parseLong(Map<String, String> values, String key, long min, List<String> errors) {
+        String raw = values.get(key);
+        try {
+            long value = Long.parseLong(raw.replace("_", ""));
+            if (value < min) {
+                errors.add(key + " must be at least " + min + ", got " + value);
+                return min;
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be a whole number, got '" + raw + "'");
+            return min;
+        }
+    }
+
+    /**
+     * Keys whose values differ from the other snapshot.
+     */
+    public List<String> changedKeys(AppConfig other) {
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (!entry.getValue().equals(other.values.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The file the snapshot was read from, or null if there was none.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    public String getDbUrl() {
+        return dbUrl;
+    }
+
+    public String getDbUser() {
+        return dbUser;
+    }
+
+    public String getDbPassword() {
+        return dbPassword;
+    }
+
+    public List<String> getReplicaUrls() {
+        return Collections.unmodifiableList(replicaUrls);
+    }
+
+    public long getReplicaMaxLagMillis() {
+        return replicaMaxLagMillis;
+    }
+
+    public int getPoolMinSize() {
+        return poolMinSize;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getElectionCacheSize() {
+        return electionCacheSize;
+    }
+
+    public long getElectionCacheTtlMillis() {
+        return electionCacheTtlMillis;
+    }
+
+    public long getSlowCallThresholdMillis() {
+        return slowCallThresholdMillis;
+    }
+
+    public long getPublishIntervalMillis() {
+        return publishIntervalMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    public int getHttpPort() {
+        return httpPort;
+    }
+
+    /**
+     * How often the configuration file is checked for changes; 0 disables reloading.
+     */
+    public long getReloadIntervalMillis() {
+        return reloadIntervalMillis;
+    }
+
+    /**
+     * Whether vote counts are journaled and written behind in batches instead of per vote.
+     */
+    public boolean isVoteWriteBehind() {
+        return voteWriteBehind;
+    }
+
+    public Path getVoteJournalDir() {
+        return voteJournalDir;
+    }
+
+    public long getVoteFlushIntervalMillis() {
+        return voteFlushIntervalMillis;
+    }
+
+    public int getVoteFlushThreshold() {
+        return voteFlushThreshold;
+    }
+
+    /**
+     * PoolConfig for the primary or a replica at the given URL.
+     */
+    public PoolConfig toPoolConfig(String url) {
+        PoolConfig pool = new PoolConfig(url, dbUser, dbPassword);
+        pool.setMinSize(poolMinSize);
+        pool.setMaxSize(poolMaxSize);
+        pool.setBorrowTimeoutMillis(borrowTimeoutMillis);
+        pool.setIdleTimeoutMillis(idleTimeoutMillis);
+        pool.setLeakDetectionThresholdMillis(leakDetectionThresholdMillis);
+        pool.setStatementCacheSize(statementCacheSize);
+        pool.setSlowQueryThresholdMillis(slowQueryThresholdMillis);
+        return pool;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        values.forEach((key, value) -> out.append(key).append('=')
+                .append(key.equals("db.password") ? "****" : value).append('\n'));
+        return out.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stops calling a failing dependency so callers fail fast instead of each waiting out
+ * a timeout, and the dependency is not buried in retries while it recovers.
+ *
+ * After failureThreshold consecutive failures the breaker opens and rejects every call for
+ * openMillis. The first call after that goes through as a probe (half-open): if it succeeds
+ * the breaker closes, if it fails the breaker opens again. Only the probe decides; calls
+ * admitted before the breaker opened that finish later cannot close or reopen it. Checking
+ * a closed breaker is a single volatile read.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * What a call was admitted as; report its outcome with the same permit.
+     */
+    public enum Permit {
+        CALL, PROBE
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder halfOpened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile State state = State.CLOSED;
+    private volatile long openUntil;
+
+    /**
+     * @param name short lowercase name, used in log lines and metric names
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis, MetricsRegistry metrics) {
+        if (failureThreshold < 1 || openMillis < 1) {
+            throw new IllegalArgumentException("Circuit breaker needs a positive failure threshold and open time");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+
+        String prefix = "election_" + name + "_circuit_breaker_";
+        metrics.registerGauge(prefix + "state", "0 closed, 1 half-open, 2 open.", () -> state.ordinal());
+        metrics.registerCounter(prefix + "opened_total", "Transitions to open.", opened::sum);
+        metrics.registerCounter(prefix + "half_opened_total", "Transitions to half-open.", halfOpened::sum);
+        metrics.registerCounter(prefix + "closed_total", "Transitions back to closed.", closed::sum);
+        metrics.registerCounter(prefix + "rejected_total", "Calls rejected without being attempted.", rejected::sum);
+    }
+
+    /**
+     * @return null if the call must not be attempted
+     */
+    public Permit tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return Permit.CALL;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN && probeInFlight.compareAndSet(false, true)) {
+            return Permit.PROBE;
+        }
+        rejected.increment();
+        return null;
+    }
+
+    public void onSuccess(Permit permit) {
+        consecutiveFailures.set(0);
+        if (permit == Permit.PROBE) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void onFailure(Permit permit) {
+        if (permit == Permit.PROBE) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Milliseconds until an open breaker lets a probe through, 0 otherwise.
+     */
+    public long getRetryAfterMillis() {
+        return state == State.OPEN ? Math.max(0, openUntil - System.currentTimeMillis()) : 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized void transition(State from, State to) {
+        if (state != from) {
+            return;
+        }
+        switch (to) {
+            case OPEN:
+                openUntil = System.currentTimeMillis() + openMillis;
+                opened.increment();
+                System.err.println("✗ Circuit breaker " + name + " opened, rejecting calls for " + openMillis + " ms");
+                break;
+            case HALF_OPEN:
+                halfOpened.increment();
+                break;
+            case CLOSED:
+                closed.increment();
+                System.out.println("Circuit breaker " + name + " closed");
+                break;
+        }
+        consecutiveFailures.set(0);
+        probeInFlight.set(false);
+        state = to;
+    }
+}
@@ -0,0 +1,107 @@
+package utils;
+
+import exception.ConfigurationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the configuration file and hands each valid new {@link AppConfig} to the listeners.
+ *
+ * An edit that does not validate is reported and ignored, so the application keeps running
+ * on the last good settings. Listeners only apply the keys in {@link AppConfig#RELOADABLE};
+ * changing any other key logs that a restart is needed.
+ */
+public class ConfigReloader implements AutoCloseable {
+    private final Path file;
+    private final List<Consumer<AppConfig>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService watcher;
+    private volatile AppConfig current;
+    private long lastModified;
+
+    public ConfigReloader(AppConfig initial) {
+        this.current = initial;
+        this.file = AppConfig.configFile();
+        this.lastModified = lastModified();
+        this.watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = initial.getReloadIntervalMillis();
+        if (interval > 0) {
+            watcher.scheduleWithFixedDelay(this::checkForChanges, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void addListener(Consumer<AppConfig> listener) {
+        listeners.add(listener);
+    }
+
+    public AppConfig getCurrent() {
+        return current;
+    }
+
+    /**
+     * Re-reads the configuration now, whether or not the file changed.
+     *
+     * @return true if a new configuration was applied
+     */
+    public synchronized boolean reload() {
+        AppConfig next;
+        try {
+            next = AppConfig.load();
+        } catch (ConfigurationException e) {
+            System.err.println("✗ Configuration not reloaded, keeping previous settings: " + e.getMessage());
+            return false;
+        }
+
+        List<String> changed = next.changedKeys(current);
+        if (changed.isEmpty()) {
+            return false;
+        }
+        for (String key : changed) {
+            if (!AppConfig.RELOADABLE.contains(key)) {
+                System.err.println("✗ " + key + " changed; restart to apply it");
+            }
+        }
+        current = next;
+        for (Consumer<AppConfig> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                System.err.println("✗ Error applying configuration: " + e.getMessage());
+            }
+        }
+        System.out.println("Configuration reloaded: " + String.join(", ", changed));
+        return true;
+    }
+
+    @Override
+    public void close() {
+        watcher.shutdownNow();
+    }
+
+    private void checkForChanges() {
+        long modified = lastModified();
+        if (modified != lastModified) {
+            lastModified = modified;
+            reload();
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package utils;
+
+import utils.interfaces.ConnectionProvider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded JDBC connection pool.
+ * Borrowed connections are proxies - calling close() returns the physical connection to the pool.
+ */
+public class ConnectionPool implements ConnectionProvider {
+
+    private final PoolConfig config;
+    private final ResizableSemaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, Lease> borrowed = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final SlowQueryLog slowQueries;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(PoolConfig config) {
+        if (config.getMinSize() < 0 || config.getMaxSize() < 1 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + config.getMinSize() +
+                    ", max=" + config.getMaxSize());
+        }
+        this.config = config;
+        this.permits = new ResizableSemaphore(config.getMaxSize());
+        this.slowQueries = new SlowQueryLog(config);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0,
+                config.getHousekeepingIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis() +
+                        " ms waiting for a database connection (max pool size " + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            // The borrower's stack is only worth its cost when a leak would be reported
+            Throwable origin = config.getLeakDetectionThresholdMillis() > 0
+                    ? new Throwable("Connection borrowed here") : null;
+            borrowed.put(pooled, new Lease(System.currentTimeMillis(), origin));
+            return wrap(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        slowQueries.close();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+        if (!borrowed.isEmpty()) {
+            System.err.println("Connection pool shut down with " + borrowed.size() + " connection(s) still in use");
+        }
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return config.getMaxSize();
+    }
+
+    /**
+     * Changes the maximum pool size while the pool is in use. When shrinking, borrowers wait
+     * until enough connections come back, and surplus idle connections are closed.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 1 || maxSize < config.getMinSize()) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + config.getMinSize() + ", max=" + maxSize);
+        }
+        permits.resize(maxSize);
+        config.setMaxSize(maxSize);
+        closeSurplusIdle();
+    }
+
+    /**
+     * The pool's live settings; sizes, timeouts and slow query settings may be changed.
+     */
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Slow statements run through this pool. Profiling is off while the threshold is 0.
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueries;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            closeQuietly(pooled);
+        }
+        return null;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = connect(config);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical, new StatementCache(config.getStatementCacheSize()));
+    }
+
+    /**
+     * Opens a physical connection outside the pool's accounting.
+     */
+    static Connection connect(PoolConfig config) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", config.getUser());
+        properties.setProperty("password", config.getPassword());
+        // Cached statements are re-executed across borrows, so let the server keep their plans
+        properties.setProperty("prepareThreshold", String.valueOf(config.getPrepareThreshold()));
+        return DriverManager.getConnection(config.getUrl(), properties);
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (shutdown || pooled.physical.isClosed()) {
+                closeQuietly(pooled);
+                return;
+            }
+            // Reset state a borrower may have changed so the next borrower starts clean
+            pooled.statements.releaseAll();
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            closeQuietly(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closeSurplusIdle() {
+        PooledConnection pooled;
+        while (totalConnections.get() > config.getMaxSize() && (pooled = idle.pollLast()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.statements.closeAll();
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        } finally {
+            totalConnections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Evicts connections idle for too long, tops the pool back up to its minimum size
+     * and reports connections held past the leak detection threshold, unless it is 0.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        for (PooledConnection pooled : idle) {
+            if (totalConnections.get() <= config.getMinSize()) {
+                break;
+            }
+            if (now - pooled.lastUsed > config.getIdleTimeoutMillis() && idle.remove(pooled)) {
+                closeQuietly(pooled);
+            }
+        }
+
+        closeSurplusIdle();
+
+        while (!shutdown && totalConnections.get() < config.getMinSize()) {
+            try {
+                idle.offerLast(openConnection());
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not open connection: " + e.getMessage());
+                break;
+            }
+        }
+
+        long leakThreshold = config.getLeakDetectionThresholdMillis();
+        if (leakThreshold == 0) {
+            return;
+        }
+        borrowed.forEach((pooled, lease) -> {
+            if (!lease.reported && now - lease.borrowedAt > leakThreshold) {
+                lease.reported = true;
+                System.err.println("Possible connection leak: connection held for " +
+                        (now - lease.borrowedAt) + " ms");
+                if (lease.origin != null) {
+                    lease.origin.printStackTrace();
+                }
+            }
+        });
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new BorrowedConnectionHandler(pooled));
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    private static class Lease {
+        private final long borrowedAt;
+        private final Throwable origin;
+        private volatile boolean reported = false;
+
+        private Lease(long borrowedAt, Throwable origin) {
+            this.borrowedAt = borrowedAt;
+            this.origin = origin;
+        }
+    }
+
+    private class BorrowedConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed = false;
+
+        private BorrowedConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (method.getName().equals("prepareStatement")) {
+                        return prepare(proxy, method, args);
+                    }
+                    return invokePhysical(method, args);
+            }
+        }
+
+        private PreparedStatement prepare(Object proxy, Method method, Object[] args) throws Throwable {
+            String sql = (String) args[0];
+            PreparedStatement statement = args.length == 1
+                    ? pooled.statements.prepare(pooled.physical, (Connection) proxy, sql)
+                    : (PreparedStatement) invokePhysical(method, args);
+            // Statements prepared while the threshold is 0 stay unprofiled, so turning it off costs nothing
+            return slowQueries.isEnabled() ? slowQueries.profile(statement, sql) : statement;
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,40 +1,142 @@
 package utils;
 
+import exception.ConfigurationException;
+import utils.interfaces.ConnectionProvider;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:postgresql://localhost:5434/waflya";
-    private static final String USER = "postgres";
-    private static final String PASSWORD = "waflya";
+    private static final long REPLICA_CHECK_INTERVAL_MILLIS = 1_000;
 
-    private static Connection connection = null;
+    private static AppConfig config = null;
+    private static ConnectionProvider provider = null;
+    private static SlowQueryLog slowQueryLog = null;
+    private static final List<ConnectionPool> pools = new ArrayList<>();
 
-    public static Connection getConnection() throws SQLException {
-        try {
-            if (connection == null || connection.isClosed()) {
+    /**
+     * Sets the endpoints and pool settings used when the pool is created. Without a call the
+     * settings are loaded with {@link AppConfig#load()} on first use.
+     */
+    public static synchronized void configure(AppConfig appConfig) {
+        if (provider != null) {
+            throw new IllegalStateException("The connection pool is already running; use applyTuning");
+        }
+        config = appConfig;
+    }
+
+    /**
+     * Applies the reloadable database settings to the running pools.
+     */
+    public static synchronized void applyTuning(AppConfig appConfig) {
+        JdbcBatches.setBatchSize(appConfig.getBatchSize());
+        JdbcStreams.setFetchSize(appConfig.getFetchSize());
+        for (ConnectionPool pool : pools) {
+            PoolConfig poolConfig = pool.getConfig();
+            // Min first, so the new max is never checked against the old min
+            poolConfig.setMinSize(appConfig.getPoolMinSize());
+            pool.setMaxSize(appConfig.getPoolMaxSize());
+            poolConfig.setBorrowTimeoutMillis(appConfig.getBorrowTimeoutMillis());
+            poolConfig.setIdleTimeoutMillis(appConfig.getIdleTimeoutMillis());
+            poolConfig.setLeakDetectionThresholdMillis(appConfig.getLeakDetectionThresholdMillis());
+            poolConfig.setSlowQueryThresholdMillis(appConfig.getSlowQueryThresholdMillis());
+            pool.getSlowQueryLog().setThresholdMillis(appConfig.getSlowQueryThresholdMillis());
+        }
+        if (provider instanceof RoutingConnectionProvider) {
+            ((RoutingConnectionProvider) provider).setMaxLagMillis(appConfig.getReplicaMaxLagMillis());
+        }
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first use.
+     */
+    public static synchronized ConnectionProvider getProvider() {
+        if (provider == null) {
+            try {
                 Class.forName("org.postgresql.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("Database connected successfully!");
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("PostgreSQL Driver not found", e);
+            }
+            if (config == null) {
+                try {
+                    config = AppConfig.load();
+                } catch (ConfigurationException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
             }
-            return connection;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("PostgreSQL Driver not found", e);
+            JdbcBatches.setBatchSize(config.getBatchSize());
+            JdbcStreams.setFetchSize(config.getFetchSize());
+            ConnectionPool pool = new ConnectionPool(config.toPoolConfig(config.getDbUrl()));
+            pools.add(pool);
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            metrics.registerGauge("election_db_connections_active", "Connections borrowed from the pool.",
+                    pool::getActiveConnections);
+            metrics.registerGauge("election_db_connections_idle", "Open connections waiting in the pool.",
+                    pool::getIdleConnections);
+            metrics.registerGauge("election_db_connections_max", "Maximum pool size.", pool::getMaxConnections);
+            provider = withReplicas(pool, metrics);
+            slowQueryLog = pool.getSlowQueryLog();
+            System.out.println("Database connection pool created!");
+        }
+        return provider;
+    }
+
+    private static ConnectionProvider withReplicas(ConnectionPool primary, MetricsRegistry metrics) {
+        List<ConnectionProvider> replicas = new ArrayList<>();
+        for (String url : config.getReplicaUrls()) {
+            ConnectionPool replica = new ConnectionPool(config.toPoolConfig(url));
+            pools.add(replica);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            return primary;
+        }
+
+        RoutingConnectionProvider routing = new RoutingConnectionProvider(primary, replicas,
+                REPLICA_CHECK_INTERVAL_MILLIS, config.getReplicaMaxLagMillis());
+        metrics.registerCounter("election_db_replica_reads_total", "Reads served by a replica.",
+                routing::getReplicaReads);
+        metrics.registerCounter("election_db_primary_reads_total",
+                "Replica-eligible reads served by the primary.", routing::getPrimaryReads);
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = i;
+            metrics.registerGauge("election_db_replica_lag_millis", "replica=\"" + i + "\"",
+                    "Time since the replica was last caught up with the primary, -1 if never.",
+                    () -> routing.getReplicaLagMillis(replica));
+        }
+        System.out.println("Routing reads to " + replicas.size() + " replica(s)");
+        return routing;
+    }
+
+    /**
+     * Slow statements run through the shared pool. Profiling is off while the threshold is 0.
+     */
+    public static synchronized SlowQueryLog getSlowQueryLog() {
+        getProvider();
+        return slowQueryLog;
+    }
+
+    /**
+     * Borrows a connection from the shared pool. Close it to give it back.
+     */
+    public static Connection getConnection() throws SQLException {
+        try {
+            return getProvider().getConnection();
         } catch (SQLException e) {
             System.err.println("Connection failed: " + e.getMessage());
             throw e;
         }
     }
 
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+    public static synchronized void closeConnection() {
+        if (provider != null) {
+            provider.shutdown();
+            provider = null;
+            slowQueryLog = null;
+            pools.clear();
+            System.out.println("Database connection pool closed.");
         }
     }
-}
\ No newline at end of file
+}
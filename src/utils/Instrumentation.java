@@ -0,0 +1,99 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.BaseStream;
+
+/**
+ * Wraps a repository or service behind its interface so every call is timed and counted
+ * in a {@link MetricsRegistry}: latency, errors, rows returned or affected, and slow calls,
+ * which are also logged.
+ *
+ * Metrics for each interface method are resolved when the proxy is created, so a call
+ * only records into existing counters.
+ */
+public class Instrumentation {
+    private static final ThreadLocal<MetricsRegistry.CallMetrics> CURRENT_CALL = new ThreadLocal<>();
+
+    /**
+     * The innermost instrumented call running on this thread, or null.
+     */
+    static MetricsRegistry.CallMetrics currentCall() {
+        return CURRENT_CALL.get();
+    }
+
+    public static <T> T instrument(Class<T> type, T target, MetricsRegistry registry) {
+        return instrument(type, target, type.getSimpleName(), registry);
+    }
+
+    public static <T> T instrument(Class<T> type, T target, String component, MetricsRegistry registry) {
+        Map<Method, MetricsRegistry.CallMetrics> metrics = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            metrics.put(method, registry.callMetrics(component, method.getName()));
+        }
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new InstrumentedHandler(target, metrics)));
+    }
+
+    private static class InstrumentedHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, MetricsRegistry.CallMetrics> metrics;
+
+        private InstrumentedHandler(Object target, Map<Method, MetricsRegistry.CallMetrics> metrics) {
+            this.target = target;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MetricsRegistry.CallMetrics call = metrics.get(method);
+            if (call == null) {
+                // equals, hashCode and toString from Object
+                return method.invoke(target, args);
+            }
+
+            MetricsRegistry.CallMetrics outer = CURRENT_CALL.get();
+            CURRENT_CALL.set(call);
+            long started = System.nanoTime();
+            Object result = null;
+            boolean failed = false;
+            try {
+                result = method.invoke(target, args);
+                return result;
+            } catch (InvocationTargetException e) {
+                failed = true;
+                throw e.getCause();
+            } finally {
+                CURRENT_CALL.set(outer);
+                long elapsed = System.nanoTime() - started;
+                if (call.record(elapsed, rowCount(result), failed)) {
+                    System.err.println("Slow call: " + call.getName() + " took " + elapsed / 1_000_000 + " ms" +
+                            (failed ? " and failed" : ""));
+                }
+            }
+        }
+
+        private static long rowCount(Object result) {
+            if (result instanceof Collection) {
+                return ((Collection<?>) result).size();
+            }
+            if (result instanceof Integer) {
+                return (Integer) result;
+            }
+            if (result instanceof int[]) {
+                return ((int[]) result).length;
+            }
+            if (result == null || result instanceof Boolean || result instanceof BaseStream) {
+                return -1;
+            }
+            return 1;
+        }
+    }
+}
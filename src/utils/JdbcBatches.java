@@ -0,0 +1,19 @@
+package utils;
+
+/**
+ * Shared JDBC batch settings for bulk repository operations.
+ */
+public class JdbcBatches {
+    private static volatile int batchSize = 500;
+
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    public static void setBatchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        batchSize = size;
+    }
+}
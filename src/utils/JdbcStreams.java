@@ -0,0 +1,92 @@
+package utils;
+
+import exception.DatabaseOperationException;
+import exception.UncheckedDatabaseOperationException;
+import utils.interfaces.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns a query into a lazily fetched Stream backed by a server-side cursor.
+ * Rows are fetched fetchSize at a time, so memory stays bounded whatever the table size.
+ * The stream owns the connection: always close it, e.g. with try-with-resources.
+ */
+public class JdbcStreams {
+    private static volatile int fetchSize = 500;
+
+    public static int getFetchSize() {
+        return fetchSize;
+    }
+
+    public static void setFetchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        fetchSize = size;
+    }
+
+    public static <T> Stream<T> stream(Connection conn, String sql, RowMapper<T> mapper, Object... params)
+            throws DatabaseOperationException {
+        PreparedStatement stmt = null;
+        try {
+            // PostgreSQL only uses a cursor for the fetch size when autocommit is off
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            PreparedStatement statement = stmt;
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new UncheckedDatabaseOperationException(
+                                new DatabaseOperationException("Error reading rows: " + e.getMessage(), e));
+                    }
+                }
+            };
+            return StreamSupport.stream(spliterator, false)
+                    .onClose(() -> close(conn, statement, rs));
+        } catch (SQLException e) {
+            close(conn, stmt, null);
+            throw new DatabaseOperationException("Error opening cursor: " + e.getMessage(), e);
+        }
+    }
+
+    private static void close(Connection conn, PreparedStatement stmt, ResultSet rs) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("Error closing cursor: " + e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+        }
+    }
+}
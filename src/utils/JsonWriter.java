@@ -0,0 +1,311 @@
+package utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON writer that encodes straight into a growable UTF-8 byte buffer.
+ *
+ * Numbers, dates and strings are written digit by digit and char by char, so building a
+ * document allocates nothing beyond the buffer itself. Call {@link #reset()} to reuse the
+ * buffer for the next document. Not thread-safe.
+ */
+public class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private byte[] buffer;
+    private int size = 0;
+    // firstInScope[depth] is true until the current object/array gets its first member
+    private boolean[] firstInScope = new boolean[16];
+    private int depth = 0;
+    private boolean afterName = false;
+
+    public JsonWriter() {
+        this(512);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+        firstInScope[0] = true;
+    }
+
+    public JsonWriter beginObject() {
+        separate();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separate();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        writeQuoted(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            writeBytes(NULL);
+        } else {
+            writeQuoted(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * ISO-8601 date, e.g. "2025-09-01".
+     */
+    public JsonWriter value(LocalDate value) {
+        separate();
+        if (value == null) {
+            writeBytes(NULL);
+            return this;
+        }
+        ensureCapacity(12);
+        writeByte('"');
+        writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        writeByte('"');
+        return this;
+    }
+
+    /**
+     * ISO-8601 date-time, formatted like LocalDateTime.toString().
+     */
+    public JsonWriter value(LocalDateTime value) {
+        separate();
+        if (value == null) {
+            writeBytes(NULL);
+            return this;
+        }
+        ensureCapacity(32);
+        writeByte('"');
+        writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        writeByte('T');
+        writeTwoDigits(value.getHour());
+        writeByte(':');
+        writeTwoDigits(value.getMinute());
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second > 0 || nano > 0) {
+            writeByte(':');
+            writeTwoDigits(second);
+            if (nano > 0) {
+                writeByte('.');
+                // Same 3, 6 or 9 fraction digits as LocalTime.toString()
+                int digits = nano % 1_000_000 == 0 ? 3 : nano % 1_000 == 0 ? 6 : 9;
+                int divisor = 100_000_000;
+                for (int i = 0; i < digits; i++) {
+                    writeByte('0' + (nano / divisor) % 10);
+                    divisor /= 10;
+                }
+            }
+        }
+        writeByte('"');
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        separate();
+        writeBytes(NULL);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the writer but keeps its buffer.
+     */
+    public JsonWriter reset() {
+        size = 0;
+        depth = 0;
+        firstInScope[0] = true;
+        afterName = false;
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * The written bytes, without copying. Only valid until the writer is used again.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (firstInScope[depth]) {
+            firstInScope[depth] = false;
+        } else {
+            writeByte(',');
+        }
+    }
+
+    private void push() {
+        depth++;
+        if (depth == firstInScope.length) {
+            firstInScope = Arrays.copyOf(firstInScope, depth * 2);
+        }
+        firstInScope[depth] = true;
+    }
+
+    private void writeQuoted(String value) {
+        int length = value.length();
+        // Worst case: every char escaped as backslash-u plus 4 hex digits
+        ensureCapacity(length * 6 + 2);
+        byte[] buf = buffer;
+        int pos = size;
+        buf[pos++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buf[pos++] = '\\';
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x20) {
+                    buf[pos++] = '\\';
+                    buf[pos++] = 'u';
+                    buf[pos++] = '0';
+                    buf[pos++] = '0';
+                    buf[pos++] = HEX[c >> 4];
+                    buf[pos++] = HEX[c & 0xF];
+                } else {
+                    buf[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?'; // unpaired surrogate, as String.getBytes(UTF_8) does
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[pos++] = '"';
+        size = pos;
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(20);
+        if (value == Long.MIN_VALUE) {
+            writeBytes("-9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int pos = size + digits;
+        size = pos;
+        do {
+            buffer[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+    }
+
+    private void writeDate(int year, int month, int day) {
+        if (year < 0 || year > 9999) {
+            writeBytes(LocalDate.of(year, month, day).toString().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        writeByte('0' + year / 1000);
+        writeByte('0' + year / 100 % 10);
+        writeByte('0' + year / 10 % 10);
+        writeByte('0' + year % 10);
+        writeByte('-');
+        writeTwoDigits(month);
+        writeByte('-');
+        writeTwoDigits(day);
+    }
+
+    private void writeTwoDigits(int value) {
+        writeByte('0' + value / 10);
+        writeByte('0' + value % 10);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package utils;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Call metrics per component method plus gauges, exportable in the Prometheus text format.
+ *
+ * Look a {@link CallMetrics} up once and keep it - recording into it allocates nothing.
+ */
+public class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, CallMetrics> calls = new ConcurrentSkipListMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private volatile long slowCallThresholdNanos = 250_000_000L;
+
+    /**
+     * The registry the application wires its components into.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public CallMetrics callMetrics(String component, String method) {
+        return calls.computeIfAbsent(component + "." + method, key -> new CallMetrics(component, method));
+    }
+
+    /**
+     * Registers a value read at export time, e.g. connection pool usage.
+     */
+    public void registerGauge(String name, String help, LongSupplier value) {
+        registerGauge(name, null, help, value);
+    }
+
+    /**
+     * Registers one labelled sample of a gauge family, e.g. labels {@code replica="0"}.
+     * Samples of the same name share one HELP and TYPE line, so give them the same help.
+     */
+    public void registerGauge(String name, String labels, String help, LongSupplier value) {
+        register(new Gauge(name, labels, "gauge", help, value));
+    }
+
+    /**
+     * Registers a monotonically increasing value kept elsewhere, read at export time.
+     */
+    public void registerCounter(String name, String help, LongSupplier value) {
+        registerCounter(name, null, help, value);
+    }
+
+    /**
+     * Registers one labelled sample of a counter family; see the labelled registerGauge.
+     */
+    public void registerCounter(String name, String labels, String help, LongSupplier value) {
+        register(new Gauge(name, labels, "counter", help, value));
+    }
+
+    private void register(Gauge gauge) {
+        gauges.put(gauge.labels == null ? gauge.name : gauge.name + "{" + gauge.labels + "}", gauge);
+    }
+
+    public long getSlowCallThresholdMillis() {
+        return slowCallThresholdNanos / 1_000_000;
+    }
+
+    public void setSlowCallThresholdMillis(long millis) {
+        this.slowCallThresholdNanos = millis * 1_000_000;
+    }
+
+    public Map<String, CallMetrics> getCallMetrics() {
+        return calls;
+    }
+
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+
+        out.append("# HELP election_call_duration_seconds Latency of repository and service calls.\n");
+        out.append("# TYPE election_call_duration_seconds summary\n");
+        for (CallMetrics call : calls.values()) {
+            LatencyHistogram histogram = call.histogram;
+            for (double quantile : QUANTILES) {
+                out.append("election_call_duration_seconds{").append(call.labels)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.getValueAtQuantile(quantile))).append('\n');
+            }
+            out.append("election_call_duration_seconds_sum{").append(call.labels).append("} ")
+                    .append(seconds(histogram.getTotalNanos())).append('\n');
+            out.append("election_call_duration_seconds_count{").append(call.labels).append("} ")
+                    .append(histogram.getCount()).append('\n');
+        }
+
+        appendCounter(out, "election_call_errors_total", "Calls that threw an exception.", CallMetrics::getErrors);
+        appendCounter(out, "election_call_rows_total", "Rows returned or affected by calls.", CallMetrics::getRows);
+        appendCounter(out, "election_slow_calls_total", "Calls slower than the slow call threshold.",
+                CallMetrics::getSlowCalls);
+        appendCounter(out, "election_statement_cache_hits_total",
+                "Statements the call found in the connection's statement cache.", CallMetrics::getStatementCacheHits);
+        appendCounter(out, "election_statement_cache_misses_total",
+                "Statements the call had to prepare.", CallMetrics::getStatementCacheMisses);
+
+        // One HELP and TYPE per family, followed by all of its samples
+        String family = null;
+        for (Gauge gauge : gauges.values().stream().sorted(Gauge.ORDER).toList()) {
+            if (!gauge.name.equals(family)) {
+                family = gauge.name;
+                out.append("# HELP ").append(gauge.name).append(' ').append(gauge.help).append('\n');
+                out.append("# TYPE ").append(gauge.name).append(' ').append(gauge.type).append('\n');
+            }
+            out.append(gauge.name);
+            if (gauge.labels != null) {
+                out.append('{').append(gauge.labels).append('}');
+            }
+            out.append(' ').append(gauge.value.getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private void appendCounter(StringBuilder out, String name, String help, ToLongFunction<CallMetrics> counter) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (CallMetrics call : calls.values()) {
+            out.append(name).append('{').append(call.labels).append("} ")
+                    .append(counter.applyAsLong(call)).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static class Gauge {
+        private static final Comparator<Gauge> ORDER = Comparator.comparing((Gauge gauge) -> gauge.name)
+                .thenComparing(gauge -> gauge.labels, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final String name;
+        private final String labels;
+        private final String type;
+        private final String help;
+        private final LongSupplier value;
+
+        private Gauge(String name, String labels, String type, String help, LongSupplier value) {
+            this.name = name;
+            this.labels = labels;
+            this.type = type;
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Latency, errors and rows of one component method.
+     */
+    public class CallMetrics {
+        private final String name;
+        private final String labels;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final LongAdder statementCacheHits = new LongAdder();
+        private final LongAdder statementCacheMisses = new LongAdder();
+
+        private CallMetrics(String component, String method) {
+            this.name = component + "." + method;
+            this.labels = "component=\"" + component + "\",method=\"" + method + "\"";
+        }
+
+        /**
+         * @param rowCount rows returned or affected, or -1 when not applicable
+         * @return true if the call was slower than the registry's slow call threshold
+         */
+        public boolean record(long nanos, long rowCount, boolean failed) {
+            histogram.record(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (failed) {
+                errors.increment();
+            }
+            if (nanos >= slowCallThresholdNanos) {
+                slowCalls.increment();
+                return true;
+            }
+            return false;
+        }
+
+        void recordStatementCache(boolean hit) {
+            (hit ? statementCacheHits : statementCacheMisses).increment();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getSlowCalls() {
+            return slowCalls.sum();
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits.sum();
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses.sum();
+        }
+    }
+}
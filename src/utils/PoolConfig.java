@@ -0,0 +1,175 @@
+package utils;
+
+/**
+ * Sizing and timeout settings for {@link ConnectionPool}.
+ * Sizes, timeouts and slow query settings may be changed while the pool runs.
+ */
+public class PoolConfig {
+    private String url;
+    private String user;
+    private String password;
+    private volatile int minSize = 2;
+    private volatile int maxSize = 10;
+    private volatile long borrowTimeoutMillis = 5_000;
+    private int validationTimeoutSeconds = 2;
+    private volatile long idleTimeoutMillis = 10 * 60_000;
+    private volatile long leakDetectionThresholdMillis = 30_000;
+    private long housekeepingIntervalMillis = 30_000;
+    private int statementCacheSize = 64;
+    private int prepareThreshold = 1;
+    private volatile long slowQueryThresholdMillis = 500;
+    private int slowQueryLogSize = 20;
+    private volatile boolean explainSlowQueries = true;
+    private volatile long explainIntervalMillis = 5 * 60_000;
+
+    public PoolConfig(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    // Getters and Setters
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    /**
+     * 0 turns leak detection off, and with it the stack captured on every borrow.
+     */
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Executions of a PreparedStatement before pgJDBC switches it to a server-side prepared plan.
+     */
+    public int getPrepareThreshold() {
+        return prepareThreshold;
+    }
+
+    public void setPrepareThreshold(int prepareThreshold) {
+        this.prepareThreshold = prepareThreshold;
+    }
+
+    /**
+     * Statements running at least this long are kept in the {@link SlowQueryLog}; 0 turns profiling off.
+     */
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    /**
+     * Number of distinct slow statements kept; faster ones are dropped first.
+     */
+    public int getSlowQueryLogSize() {
+        return slowQueryLogSize;
+    }
+
+    public void setSlowQueryLogSize(int slowQueryLogSize) {
+        this.slowQueryLogSize = slowQueryLogSize;
+    }
+
+    public boolean isExplainSlowQueries() {
+        return explainSlowQueries;
+    }
+
+    public void setExplainSlowQueries(boolean explainSlowQueries) {
+        this.explainSlowQueries = explainSlowQueries;
+    }
+
+    /**
+     * Minimum time between two EXPLAIN runs of the same statement.
+     */
+    public long getExplainIntervalMillis() {
+        return explainIntervalMillis;
+    }
+
+    public void setExplainIntervalMillis(long explainIntervalMillis) {
+        this.explainIntervalMillis = explainIntervalMillis;
+    }
+}
@@ -0,0 +1,84 @@
+package utils;
+
+import utils.interfaces.Request;
+
+/**
+ * The reads and writes of one client, so its reads see its own writes even when they are
+ * served by a replica (see {@link RoutingConnectionProvider}).
+ *
+ * A session is bound to the thread running the client's work, and {@link RequestExecutor}
+ * carries it over to the virtual threads it runs requests on. A thread with no session bound
+ * uses one of its own, so background work such as the results engine neither waits for nor
+ * holds back anyone else's replica reads. Across requests a session travels as its token,
+ * the time of its last write.
+ */
+public class ReadSession {
+    private static final ThreadLocal<ReadSession> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<ReadSession> UNBOUND = ThreadLocal.withInitial(ReadSession::new);
+
+    private volatile long lastWriteAt;
+
+    public ReadSession() {
+        this(0);
+    }
+
+    private ReadSession(long lastWriteAt) {
+        this.lastWriteAt = lastWriteAt;
+    }
+
+    /**
+     * Resumes a session from the token of an earlier one; an unparseable token starts afresh.
+     */
+    public static ReadSession fromToken(String token) {
+        if (token == null) {
+            return new ReadSession();
+        }
+        try {
+            return new ReadSession(Long.parseLong(token.trim()));
+        } catch (NumberFormatException e) {
+            return new ReadSession();
+        }
+    }
+
+    /**
+     * The session bound to this thread, or else the thread's own.
+     */
+    public static ReadSession current() {
+        ReadSession session = CURRENT.get();
+        return session != null ? session : UNBOUND.get();
+    }
+
+    /**
+     * Runs the call with this session bound to the current thread.
+     */
+    public <T, E extends Exception> T call(Request<T, E> request) throws E {
+        ReadSession previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return request.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Epoch milliseconds of the last write, 0 if there was none.
+     */
+    public long getLastWriteAt() {
+        return lastWriteAt;
+    }
+
+    public String getToken() {
+        return Long.toString(lastWriteAt);
+    }
+
+    void recordWrite(long at) {
+        if (at > lastWriteAt) {
+            lastWriteAt = at;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package utils;
 
 import java.lang.reflect.*;
-import java.util.Arrays;
 
 public class ReflectionUtils {
 
@@ -94,12 +93,11 @@ public class ReflectionUtils {
      * Inspects an object instance and prints its current field values
      */
     public static void inspectObject(Object obj) {
-        Class<?> clazz = obj.getClass();
-        System.out.println("\n[OBJECT INSTANCE INSPECTION: " + clazz.getSimpleName() + "]");
+        ClassMetadata metadata = ClassMetadata.of(obj.getClass());
+        System.out.println("\n[OBJECT INSTANCE INSPECTION: " + metadata.getType().getSimpleName() + "]");
 
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            field.setAccessible(true); // Access private fields
+        // Accessors are looked up once per class, not on every call
+        for (ClassMetadata.FieldAccessor field : metadata.getFields()) {
             try {
                 Object value = field.get(obj);
                 System.out.printf("  %s = %s%n", field.getName(), value);
@@ -111,14 +109,10 @@ public class ReflectionUtils {
     }
 
     public static String[] getMethodNames(Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredMethods())
-                .map(Method::getName)
-                .toArray(String[]::new);
+        return ClassMetadata.of(clazz).getMethodNames().toArray(new String[0]);
     }
 
     public static String[] getFieldNames(Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .map(Field::getName)
-                .toArray(String[]::new);
+        return ClassMetadata.of(clazz).getFieldNames().toArray(new String[0]);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package utils;
+
+import exception.RequestTimeoutException;
+import utils.interfaces.ConnectionProvider;
+import utils.interfaces.Request;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs controller and service requests on virtual threads.
+ *
+ * Blocking JDBC calls then park a virtual thread instead of holding a platform thread.
+ * Running requests are capped at the connection pool size, so waiting happens here,
+ * cheaply and under the request's deadline, instead of in the pool's borrow timeout.
+ * A request that misses its deadline is cancelled (its thread interrupted) and the
+ * caller gets a RequestTimeoutException.
+ *
+ * The interrupt does not abort a pgJDBC query blocked in a socket read: the statement
+ * keeps running and the connection stays borrowed until the server answers. Bounding
+ * that needs Statement.setQueryTimeout or the driver's socketTimeout.
+ */
+public class RequestExecutor implements AutoCloseable {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("request-", 0).factory());
+    private final ResizableSemaphore permits;
+    private volatile long timeoutMillis;
+
+    public RequestExecutor(int maxConcurrency, long timeoutMillis) {
+        if (maxConcurrency < 1 || timeoutMillis < 1) {
+            throw new IllegalArgumentException("Invalid request executor settings: maxConcurrency=" +
+                    maxConcurrency + ", timeoutMillis=" + timeoutMillis);
+        }
+        this.permits = new ResizableSemaphore(maxConcurrency);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Limits concurrent requests to the number of connections the provider can hand out.
+     */
+    public RequestExecutor(ConnectionProvider provider, long timeoutMillis) {
+        this(provider.getMaxConnections(), timeoutMillis);
+    }
+
+    /**
+     * Runs the request on a virtual thread and waits for its result.
+     * Exceptions the request throws are rethrown as they are.
+     */
+    public <T, E extends Exception> T call(Request<T, E> request) throws E, RequestTimeoutException {
+        long deadline = deadline();
+        Future<T> future = submit(request, deadline);
+        try {
+            return future.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RequestTimeoutException("Request timed out after " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RequestTimeoutException("Interrupted while waiting for request");
+        } catch (ExecutionException e) {
+            throw RequestExecutor.<E>unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Applies to requests submitted from now on; running ones keep their deadline.
+     */
+    public void setTimeoutMillis(long timeoutMillis) {
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Invalid request timeout: " + timeoutMillis);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Changes how many requests may run at once, e.g. after the connection pool was resized.
+     * Running requests keep their permits.
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Invalid request concurrency: " + maxConcurrency);
+        }
+        permits.resize(maxConcurrency);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Requests run in the caller's read session, so they see the caller's own writes
+    private <T> Future<T> submit(Request<T, ?> request, long deadline) {
+        ReadSession session = ReadSession.current();
+        return executor.submit(() -> runWithPermit(request, session, deadline));
+    }
+
+    private <T> T runWithPermit(Request<? extends T, ?> request, ReadSession session, long deadline)
+            throws Exception {
+        if (!permits.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+            throw new RequestTimeoutException("Timed out after " + timeoutMillis +
+                    " ms waiting for a free request slot");
+        }
+        try {
+            return session.call(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Rethrows what a request threw. Requests only throw E, unchecked exceptions,
+     * or the RequestTimeoutException from waiting for a permit.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E unwrap(Throwable cause) throws E, RequestTimeoutException {
+        if (cause instanceof RequestTimeoutException) {
+            throw (RequestTimeoutException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw (E) cause;
+    }
+}
@@ -0,0 +1,147 @@
+package utils;
+
+import exception.DatabaseOperationException;
+import exception.ServiceUnavailableException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps repositories behind their interface with a shared {@link CircuitBreaker} and retries
+ * of idempotent reads.
+ *
+ * Every call that declares DatabaseOperationException first asks the breaker; while it is
+ * open the call fails at once with {@link ServiceUnavailableException}. Calls failing with
+ * an {@link SqlErrors#isUnavailable unavailable} database count against the breaker; any
+ * other outcome, including not-found and constraint errors, shows the database is up.
+ *
+ * Reads - methods named find*, exists*, is* and tally* - are retried on
+ * {@link SqlErrors#isTransient transient} errors up to maxAttempts times, sleeping a random
+ * time between zero and an exponentially growing cap ("full jitter") so clients that failed
+ * together do not all come back at the same moment. Writes and callback or stream reads,
+ * which may have had effects before failing, are never retried.
+ */
+public class Resilience {
+    private static final String[] READ_PREFIXES = {"find", "exists", "is", "tally"};
+
+    private final CircuitBreaker breaker;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final LongAdder retries = new LongAdder();
+
+    public Resilience(CircuitBreaker breaker, int maxAttempts, long baseDelayMillis, long maxDelayMillis,
+                      MetricsRegistry metrics) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        this.breaker = breaker;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        metrics.registerCounter("election_" + breaker.getName() + "_retries_total",
+                "Reads retried after a transient database error.", retries::sum);
+    }
+
+    public <T> T protect(Class<T> type, T target) {
+        Map<Method, Boolean> retryable = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (declares(method, DatabaseOperationException.class)) {
+                retryable.put(method, isRead(method.getName()));
+            }
+        }
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new ResilientHandler(target, retryable)));
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    private static boolean isRead(String name) {
+        for (String prefix : READ_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean declares(Method method, Class<?> exceptionType) {
+        for (Class<?> declared : method.getExceptionTypes()) {
+            if (declared.isAssignableFrom(exceptionType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private class ResilientHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, Boolean> retryable;
+
+        private ResilientHandler(Object target, Map<Method, Boolean> retryable) {
+            this.target = target;
+            this.retryable = retryable;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Boolean read = retryable.get(method);
+            if (read == null) {
+                // Cannot report a rejection, e.g. equals, hashCode and toString
+                return call(method, args);
+            }
+
+            for (int attempt = 1; ; attempt++) {
+                CircuitBreaker.Permit permit = breaker.tryAcquire();
+                if (permit == null) {
+                    throw new ServiceUnavailableException("Database unavailable, try again later",
+                            breaker.getRetryAfterMillis());
+                }
+                try {
+                    Object result = call(method, args);
+                    breaker.onSuccess(permit);
+                    return result;
+                } catch (Throwable e) {
+                    if (SqlErrors.isUnavailable(e)) {
+                        breaker.onFailure(permit);
+                    } else {
+                        breaker.onSuccess(permit);
+                    }
+                    if (!read || attempt >= maxAttempts || !SqlErrors.isTransient(e)) {
+                        throw e;
+                    }
+                    retries.increment();
+                    try {
+                        Thread.sleep(backoffMillis(attempt));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package utils;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fair semaphore whose number of permits can be changed while it is in use. Shrinking it
+ * below the permits currently taken makes new acquirers wait until enough are released.
+ */
+class ResizableSemaphore extends Semaphore {
+    private int size;
+
+    ResizableSemaphore(int size) {
+        super(size, true);
+        this.size = size;
+    }
+
+    synchronized void resize(int newSize) {
+        if (newSize > size) {
+            release(newSize - size);
+        } else if (newSize < size) {
+            reducePermits(size - newSize);
+        }
+        size = newSize;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
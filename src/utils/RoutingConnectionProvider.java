@@ -0,0 +1,301 @@
+package utils;
+
+import utils.interfaces.ConnectionProvider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends writes to the primary and reads asked for with getReadConnection() to streaming
+ * replicas, as long as a replica is both fresh enough and has the caller's own writes.
+ *
+ * A background check notes the time, reads the primary's current WAL position and asks each
+ * replica whether it has replayed up to it. A replica that has is known to hold every commit
+ * made before that time ("caught up to" it). Closing a primary connection that committed a
+ * write records the time in the caller's {@link ReadSession}; the session's reads then go to
+ * a replica only once it is caught up past that write. Reads done on the primary, such as
+ * exists checks, leave the session alone. Replicas that are unreachable, not caught up within
+ * maxLagMillis or not a standby at all are skipped, and with none left reads use the primary.
+ */
+public class RoutingConnectionProvider implements ConnectionProvider {
+    private final ConnectionProvider primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private volatile long maxLagMillis;
+    private final ScheduledExecutorService monitor;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public RoutingConnectionProvider(ConnectionProvider primary, List<ConnectionProvider> replicas,
+                                     long checkIntervalMillis, long maxLagMillis) {
+        this.primary = primary;
+        for (ConnectionProvider replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        this.maxLagMillis = maxLagMillis;
+        this.monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = primary.getConnection();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new WriteTracker(connection, ReadSession.current()));
+    }
+
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        long lastWriteAt = ReadSession.current().getLastWriteAt();
+        long now = System.currentTimeMillis();
+        int start = nextReplica.getAndIncrement();
+
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            long caughtUpTo = replica.caughtUpTo;
+            if (!replica.healthy || caughtUpTo <= lastWriteAt || now - caughtUpTo > maxLagMillis) {
+                continue;
+            }
+            try {
+                Connection connection = replica.provider.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                System.err.println("✗ Replica unavailable, reading from another server: " + e.getMessage());
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return primary.getMaxConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        monitor.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.provider.shutdown();
+        }
+        primary.shutdown();
+    }
+
+    public void setMaxLagMillis(long maxLagMillis) {
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public ConnectionProvider getPrimary() {
+        return primary;
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * How far behind the replica may be: time since it was last seen caught up with the
+     * primary, or -1 if it never was.
+     */
+    public long getReplicaLagMillis(int replica) {
+        long caughtUpTo = replicas.get(replica).caughtUpTo;
+        return caughtUpTo == 0 ? -1 : System.currentTimeMillis() - caughtUpTo;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * Reads that asked for a replica but were served by the primary.
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    private void checkReplicas() {
+        long checkedAt = System.currentTimeMillis();
+        String primaryLsn;
+        try (Connection conn = primary.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT pg_current_wal_lsn()")) {
+            rs.next();
+            primaryLsn = rs.getString(1);
+        } catch (SQLException | RuntimeException e) {
+            // Without a primary position replicas cannot catch up and age out after maxLagMillis.
+            // Nothing may escape: the scheduler would cancel every later check
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            // NULL on a server that is not replaying WAL, i.e. not a standby
+            try (Connection conn = replica.provider.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT pg_last_wal_replay_lsn() >= ?::pg_lsn")) {
+                stmt.setString(1, primaryLsn);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        replica.caughtUpTo = checkedAt;
+                    }
+                }
+                replica.healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                replica.healthy = false;
+            }
+        }
+    }
+
+    /**
+     * Notes whether a primary connection committed a write, and if so records it in the
+     * session when the connection is closed.
+     *
+     * A statement counts as a write unless its SQL starts with SELECT, SHOW, EXPLAIN or VALUES;
+     * INSERT ... RETURNING run with executeQuery is a write. Writes in a transaction only count
+     * once it commits, and a rollback forgets them.
+     */
+    private static class WriteTracker implements InvocationHandler {
+        private static final String[] READ_KEYWORDS = {"SELECT", "SHOW", "EXPLAIN", "VALUES"};
+
+        private final Connection connection;
+        private final ReadSession session;
+        private boolean uncommittedWrite = false;
+        private boolean committedWrite = false;
+
+        private WriteTracker(Connection connection, ReadSession session) {
+            this.connection = connection;
+            this.session = session;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!connection.isClosed()) {
+                        connection.close();
+                        if (committedWrite) {
+                            // Everything committed on this connection is visible by now
+                            session.recordWrite(System.currentTimeMillis());
+                        }
+                    }
+                    return null;
+                case "prepareStatement":
+                case "prepareCall":
+                    return track(proxy, call(method, args), (String) args[0]);
+                case "createStatement":
+                    return track(proxy, call(method, args), null);
+                case "commit":
+                    call(method, args);
+                    committedWrite |= uncommittedWrite;
+                    uncommittedWrite = false;
+                    return null;
+                case "rollback":
+                    call(method, args);
+                    if (args == null) {
+                        uncommittedWrite = false;
+                    }
+                    return null;
+                case "setAutoCommit":
+                    // Turning auto-commit back on commits the open transaction
+                    boolean wasAutoCommit = connection.getAutoCommit();
+                    call(method, args);
+                    if (!wasAutoCommit && (Boolean) args[0]) {
+                        committedWrite |= uncommittedWrite;
+                        uncommittedWrite = false;
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+            }
+            return call(method, args);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Wraps the statement so executing a write marks this connection
+        private Object track(Object connectionProxy, Object statement, String preparedSql) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    // execute(String) and friends run the SQL they are given, not the prepared one
+                    String sql = args != null && args.length > 0 && args[0] instanceof String
+                            ? (String) args[0] : preparedSql;
+                    if (name.contains("Update") || name.endsWith("Batch") || sql == null || isWrite(sql)) {
+                        noteWrite();
+                    }
+                } else if (name.equals("getConnection")) {
+                    return connectionProxy;
+                } else if (name.equals("equals")) {
+                    return proxy == args[0];
+                } else if (name.equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        private void noteWrite() throws SQLException {
+            if (connection.getAutoCommit()) {
+                committedWrite = true;
+            } else {
+                uncommittedWrite = true;
+            }
+        }
+
+        static boolean isWrite(String sql) {
+            String trimmed = sql.stripLeading();
+            for (String keyword : READ_KEYWORDS) {
+                if (trimmed.regionMatches(true, 0, keyword, 0, keyword.length())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Replica {
+        private final ConnectionProvider provider;
+        private volatile boolean healthy = true;
+        private volatile long caughtUpTo = 0;
+
+        private Replica(ConnectionProvider provider) {
+            this.provider = provider;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package utils;
+
+import exception.DatabaseOperationException;
+import utils.interfaces.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the database schema up to date at startup by running the versioned scripts in
+ * resources/db/migration that are not yet recorded in schema_migrations.
+ *
+ * Each script runs in its own transaction together with its schema_migrations row, so a
+ * failed script leaves nothing behind and is retried on the next start. An advisory lock
+ * keeps two instances starting at once from migrating concurrently. A script that changed
+ * after it was applied stops the migration - add a new version instead of editing an old one.
+ */
+public class SchemaMigrator {
+    private static final String LOCATION = "db/migration/";
+    // Applied in this order; add new scripts at the end
+    private static final String[] SCRIPTS = {
+            "V1__baseline.sql",
+            "V2__secondary_indexes.sql",
+            "V3__partition_votes_by_election.sql",
+    };
+    private static final long LOCK_KEY = 0x656c656374696f6eL;
+
+    private final ConnectionProvider connectionProvider;
+
+    public SchemaMigrator(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * @return number of scripts applied
+     */
+    public int migrate() throws DatabaseOperationException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                        "version INTEGER PRIMARY KEY, " +
+                        "script VARCHAR(255) NOT NULL, " +
+                        "checksum BIGINT NOT NULL, " +
+                        "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            }
+            try {
+                return applyPending(conn);
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error migrating schema: " + e.getMessage(), e);
+        }
+    }
+
+    private int applyPending(Connection conn) throws SQLException, DatabaseOperationException {
+        Map<Integer, Long> applied = appliedVersions(conn);
+        int count = 0;
+
+        for (String script : SCRIPTS) {
+            int version = versionOf(script);
+            String sql = load(script);
+            long checksum = checksum(sql);
+
+            Long recorded = applied.get(version);
+            if (recorded != null) {
+                if (recorded != checksum) {
+                    throw new DatabaseOperationException("Migration " + script +
+                            " was changed after it was applied");
+                }
+                continue;
+            }
+
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement record = conn.prepareStatement(
+                         "INSERT INTO schema_migrations (version, script, checksum) VALUES (?, ?, ?)")) {
+                stmt.execute(sql);
+                record.setInt(1, version);
+                record.setString(2, script);
+                record.setLong(3, checksum);
+                record.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new DatabaseOperationException("Migration " + script + " failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            System.out.println("Applied migration " + script);
+            count++;
+        }
+        return count;
+    }
+
+    private Map<Integer, Long> appliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    // V12__description.sql -> 12
+    static int versionOf(String script) {
+        int separator = script.indexOf("__");
+        if (!script.startsWith("V") || separator < 2) {
+            throw new IllegalArgumentException("Migration script name must look like V1__description.sql: " + script);
+        }
+        return Integer.parseInt(script.substring(1, separator));
+    }
+
+    private static String load(String script) throws DatabaseOperationException {
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + script)) {
+            if (in == null) {
+                throw new DatabaseOperationException("Migration " + script + " not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error reading migration " + script + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Line endings are normalized so a checkout on Windows does not look like an edit
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
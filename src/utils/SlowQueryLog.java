@@ -0,0 +1,364 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the worst statements slower than a threshold, one entry per SQL text, together with
+ * the shape of the parameters they ran with and - sampled at most once per SQL per explain
+ * interval - the plan from re-running them under EXPLAIN (ANALYZE, BUFFERS).
+ *
+ * Plans are captured in the background on a dedicated side connection, so a pool exhausted
+ * by slow queries does not stop us from finding out why they are slow. SELECTs are analyzed
+ * in a read-only transaction; anything else only gets a plain EXPLAIN, since ANALYZE would
+ * execute it. Both are rolled back.
+ */
+public class SlowQueryLog implements AutoCloseable {
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 30;
+
+    private final PoolConfig config;
+    private volatile long thresholdNanos;
+    private final int capacity;
+    private final Map<String, SlowQuery> worst = new HashMap<>();
+    private final ThreadPoolExecutor explainer;
+    private Connection sideConnection;
+
+    public SlowQueryLog(PoolConfig config) {
+        this.config = config;
+        setThresholdMillis(config.getSlowQueryThresholdMillis());
+        this.capacity = config.getSlowQueryLogSize();
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+                r -> {
+                    Thread thread = new Thread(r, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Wraps a statement so its executions are timed and its parameters remembered.
+     */
+    public PreparedStatement profile(PreparedStatement statement, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new ProfiledStatement(statement, sql));
+    }
+
+    /**
+     * Changes the threshold for new executions; 0 stops recording.
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis == 0 ? Long.MAX_VALUE : thresholdMillis * 1_000_000;
+    }
+
+    /**
+     * Whether new statements should be profiled at all.
+     */
+    public boolean isEnabled() {
+        return thresholdNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * The worst slow queries seen so far, slowest first.
+     */
+    public synchronized List<SlowQuery> getWorstQueries() {
+        List<SlowQuery> queries = new ArrayList<>(worst.size());
+        for (SlowQuery query : worst.values()) {
+            queries.add(query.copy());
+        }
+        queries.sort(Comparator.comparingLong(SlowQuery::getWorstNanos).reversed());
+        return queries;
+    }
+
+    public synchronized void clear() {
+        worst.clear();
+    }
+
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+        try {
+            explainer.awaitTermination(EXPLAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeSideConnection();
+    }
+
+    private void record(String sql, Object[] parameters, int parameterCount, long nanos) {
+        if (nanos < thresholdNanos || capacity == 0) {
+            return;
+        }
+        Object[] values = Arrays.copyOf(parameters, parameterCount);
+        boolean explain;
+        synchronized (this) {
+            SlowQuery query = worst.get(sql);
+            if (query == null) {
+                if (worst.size() >= capacity && !evictFasterThan(nanos)) {
+                    return;
+                }
+                query = new SlowQuery(sql);
+                worst.put(sql, query);
+            }
+            query.count++;
+            query.totalNanos += nanos;
+            query.lastSeen = LocalDateTime.now();
+            if (nanos > query.worstNanos) {
+                query.worstNanos = nanos;
+                query.parameterShape = shapeOf(values);
+            }
+            long now = System.nanoTime();
+            explain = config.isExplainSlowQueries() && (query.explainedAt == 0 ||
+                    now - query.explainedAt > config.getExplainIntervalMillis() * 1_000_000);
+            if (explain) {
+                query.explainedAt = now;
+            }
+        }
+        System.err.println("Slow query (" + nanos / 1_000_000 + " ms): " + sql);
+        if (explain) {
+            explainer.execute(() -> explain(sql, values));
+        }
+    }
+
+    // Makes room for a slower query by dropping the fastest entry, if there is one faster
+    private boolean evictFasterThan(long nanos) {
+        SlowQuery fastest = null;
+        for (SlowQuery query : worst.values()) {
+            if (fastest == null || query.worstNanos < fastest.worstNanos) {
+                fastest = query;
+            }
+        }
+        if (fastest == null || fastest.worstNanos >= nanos) {
+            return false;
+        }
+        worst.remove(fastest.sql);
+        return true;
+    }
+
+    private void explain(String sql, Object[] values) {
+        boolean analyze = sql.stripLeading().regionMatches(true, 0, "SELECT", 0, 6);
+        String explainSql = (analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + sql;
+        StringBuilder plan = new StringBuilder();
+        try {
+            Connection conn = sideConnection();
+            conn.setAutoCommit(false);
+            conn.setReadOnly(analyze);
+            try (PreparedStatement stmt = conn.prepareStatement(explainSql)) {
+                stmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                for (int i = 0; i < values.length; i++) {
+                    stmt.setObject(i + 1, values[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Could not explain slow query: " + e.getMessage());
+            closeSideConnection();
+            return;
+        }
+
+        synchronized (this) {
+            SlowQuery query = worst.get(sql);
+            if (query != null) {
+                query.plan = plan.toString();
+            }
+        }
+    }
+
+    private Connection sideConnection() throws SQLException {
+        if (sideConnection == null || sideConnection.isClosed()) {
+            sideConnection = ConnectionPool.connect(config);
+        }
+        return sideConnection;
+    }
+
+    private void closeSideConnection() {
+        if (sideConnection == null) {
+            return;
+        }
+        try {
+            sideConnection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing slow query connection: " + e.getMessage());
+        }
+        sideConnection = null;
+    }
+
+    /**
+     * Parameter types in order, with string lengths: (String[16], Integer, null).
+     */
+    static String shapeOf(Object[] values) {
+        StringBuilder shape = new StringBuilder("(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                shape.append(", ");
+            }
+            Object value = values[i];
+            if (value == null) {
+                shape.append("null");
+            } else {
+                shape.append(value.getClass().getSimpleName());
+                if (value instanceof CharSequence) {
+                    shape.append('[').append(((CharSequence) value).length()).append(']');
+                }
+            }
+        }
+        return shape.append(')').toString();
+    }
+
+    /**
+     * The slowest execution of one SQL text and how often it crossed the threshold.
+     */
+    public static class SlowQuery {
+        private final String sql;
+        private String parameterShape = "()";
+        private long worstNanos;
+        private long totalNanos;
+        private long count;
+        private LocalDateTime lastSeen;
+        private String plan;
+        private long explainedAt;
+
+        private SlowQuery(String sql) {
+            this.sql = sql;
+        }
+
+        private SlowQuery copy() {
+            SlowQuery copy = new SlowQuery(sql);
+            copy.parameterShape = parameterShape;
+            copy.worstNanos = worstNanos;
+            copy.totalNanos = totalNanos;
+            copy.count = count;
+            copy.lastSeen = lastSeen;
+            copy.plan = plan;
+            copy.explainedAt = explainedAt;
+            return copy;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getParameterShape() {
+            return parameterShape;
+        }
+
+        public long getWorstNanos() {
+            return worstNanos;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public LocalDateTime getLastSeen() {
+            return lastSeen;
+        }
+
+        /**
+         * The captured EXPLAIN output, or null while none has been taken.
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.1f ms worst, %d slow, params %s: %s",
+                    worstNanos / 1e6, count, parameterShape, sql);
+        }
+    }
+
+    private class ProfiledStatement implements InvocationHandler {
+        private final PreparedStatement target;
+        private final String sql;
+        private Object[] parameters = new Object[8];
+        private int parameterCount = 0;
+
+        private ProfiledStatement(PreparedStatement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                // setNull(index, sqlType) binds nothing worth remembering but the null
+                remember((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long started = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                long elapsed = System.nanoTime() - started;
+                if (elapsed >= thresholdNanos) {
+                    // execute(String) and friends run the SQL they are given, not the prepared one
+                    boolean adHoc = args != null && args.length > 0 && args[0] instanceof String;
+                    record(adHoc ? (String) args[0] : sql, parameters, adHoc ? 0 : parameterCount, elapsed);
+                }
+            }
+        }
+
+        private void remember(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
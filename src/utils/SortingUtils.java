@@ -4,13 +4,19 @@ import model.BaseEntity;
 import model.Candidate;
 import model.Student;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 public class SortingUtils {
+    // Same order as the live leaderboard: most votes first, ties by lowest id
+    private static final Comparator<Candidate> BY_VOTES =
+            Comparator.comparingInt(Candidate::getVoteCount).reversed()
+                    .thenComparingInt(Candidate::getId);
 
     public static <T extends BaseEntity> List<T> sortByName(List<T> entities) {
         // Lambda expression for comparator
@@ -52,11 +58,28 @@ public class SortingUtils {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Partial selection with a size-n heap: O(size * log n) instead of sorting everything.
+     * Ties on votes go to the lower candidate id, so the result does not depend on input order.
+     */
     public static List<Candidate> getTopNCandidates(List<Candidate> candidates, int n) {
-        return candidates.stream()
-                .sorted((c1, c2) -> Integer.compare(c2.getVoteCount(), c1.getVoteCount()))
-                .limit(n)
-                .collect(Collectors.toList());
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        // The head is the weakest of the current top n
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(n, candidates.size()) + 1, BY_VOTES.reversed());
+        for (Candidate candidate : candidates) {
+            if (heap.size() < n) {
+                heap.offer(candidate);
+            } else if (BY_VOTES.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        }
+
+        List<Candidate> top = new ArrayList<>(heap);
+        top.sort(BY_VOTES);
+        return top;
     }
 
 
@@ -0,0 +1,79 @@
+package utils;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Classifies JDBC failures by SQLState, looking through wrapping exceptions.
+ */
+public class SqlErrors {
+
+    /**
+     * Failures that may succeed when simply tried again: lost or refused connections,
+     * a server shutting down or restarting, too many connections, and transactions
+     * aborted by a serialization failure or deadlock.
+     */
+    public static boolean isTransient(Throwable error) {
+        SQLException e = find(error);
+        if (e == null) {
+            return false;
+        }
+        if (e instanceof SQLTransientConnectionException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (isConnectionFailure(state) ||
+                state.equals("40001") ||     // serialization_failure
+                state.equals("40P01"));      // deadlock_detected
+    }
+
+    /**
+     * Failures that say the database itself is down, restarting or overloaded, as opposed
+     * to something wrong with the statement: these count against the circuit breaker.
+     */
+    public static boolean isUnavailable(Throwable error) {
+        SQLException e = find(error);
+        if (e == null) {
+            return false;
+        }
+        if (e instanceof SQLTransientConnectionException || e instanceof SQLRecoverableException ||
+                e instanceof SQLTimeoutException) {
+            // Includes timing out waiting for a pooled connection
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (isConnectionFailure(state) ||
+                state.equals("57014") ||     // query_canceled, e.g. by statement_timeout
+                state.equals("25006"));      // read_only_sql_transaction: we hit a demoted primary
+    }
+
+    /**
+     * An insert or update rejected by a unique constraint.
+     */
+    public static boolean isUniqueViolation(Throwable error) {
+        SQLException e = find(error);
+        return e != null && "23505".equals(e.getSQLState());
+    }
+
+    private static boolean isConnectionFailure(String state) {
+        return state.startsWith("08") ||    // connection_exception
+                state.equals("57P01") ||    // admin_shutdown
+                state.equals("57P02") ||    // crash_shutdown
+                state.equals("57P03") ||    // cannot_connect_now
+                state.equals("53300");      // too_many_connections
+    }
+
+    private static SQLException find(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return (SQLException) cause;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+}
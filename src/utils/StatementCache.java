@@ -0,0 +1,168 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Per-connection cache of PreparedStatements keyed by SQL text.
+ *
+ * Closing a statement handed out by the cache only resets it for the next caller, so
+ * repositories keep their usual try-with-resources code. A physical connection is used
+ * by one borrower at a time, so the cache itself needs no locking.
+ *
+ * Hits and misses are counted against the instrumented repository method that prepared the
+ * statement and exported with its other call metrics.
+ */
+public class StatementCache {
+    private final int capacity;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    public StatementCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing one on a miss.
+     * A second request for SQL whose statement is still open gets an uncached statement.
+     *
+     * @param owner the borrowed connection reported by the statement's getConnection()
+     */
+    public PreparedStatement prepare(Connection physical, Connection owner, String sql) throws SQLException {
+        MetricsRegistry.CallMetrics call = Instrumentation.currentCall();
+
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            if (call != null) {
+                call.recordStatementCache(true);
+            }
+            cached.inUse = true;
+            cached.owner = owner;
+            return cached.proxy;
+        }
+        if (call != null) {
+            call.recordStatementCache(false);
+        }
+        if (cached != null || capacity == 0) {
+            return physical.prepareStatement(sql);
+        }
+
+        cached = new CachedStatement(physical.prepareStatement(sql), owner);
+        cached.inUse = true;
+        statements.put(sql, cached);
+        evictOverflow();
+        return cached.proxy;
+    }
+
+    /**
+     * Resets statements the last borrower left open, before the connection goes back to the pool.
+     */
+    public void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                try {
+                    cached.release();
+                } catch (SQLException e) {
+                    System.err.println("Error resetting cached statement: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closePhysical();
+        }
+        statements.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (statements.size() > capacity && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    private static class CachedStatement implements InvocationHandler {
+        private final PreparedStatement physical;
+        private Connection owner;
+        private final PreparedStatement proxy;
+        private boolean inUse = false;
+        private boolean evicted = false;
+
+        private CachedStatement(PreparedStatement physical, Connection owner) {
+            this.physical = physical;
+            this.owner = owner;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (!inUse) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        // Undo whatever the last caller set up so the next one starts clean
+        private void release() throws SQLException {
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            ResultSet rs = physical.getResultSet();
+            if (rs != null) {
+                rs.close();
+            }
+            physical.clearParameters();
+            physical.clearBatch();
+            physical.setFetchSize(0);
+            physical.setMaxRows(0);
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only local journal of acknowledged votes, split into segments.
+ * Each record is the 4-byte id of the candidate that received the vote.
+ * A segment is deleted once its votes have been applied to the database.
+ *
+ * Appends are not forced to disk: every vote is already committed to the votes ledger, and
+ * counts lost with the page cache in a crash are recounted from there on recovery.
+ */
+public class VoteJournal implements AutoCloseable {
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES);
+    private final Set<String> ownSegments = ConcurrentHashMap.newKeySet();
+    private String currentSegment;
+    private FileChannel channel;
+    private long size;
+
+    public VoteJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        openNewSegment();
+    }
+
+    /**
+     * Appends one vote. If the write fails, nothing of the record is left behind, so later
+     * records stay aligned.
+     */
+    public synchronized void append(int candidateId) throws IOException {
+        record.clear();
+        record.putInt(candidateId);
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            discardPartialRecord();
+            throw e;
+        }
+        size += Integer.BYTES;
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return ids of every closed segment still on disk
+     */
+    public synchronized List<String> rotate() throws IOException {
+        channel.close();
+        openNewSegment();
+        return closedSegments();
+    }
+
+    /**
+     * Ids of closed segments on disk, including those left by a previous run or a failed flush.
+     */
+    public synchronized List<String> closedSegments() throws IOException {
+        List<String> segmentIds = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String segmentId = fileName.substring(0, fileName.length() - SUFFIX.length());
+                if (!segmentId.equals(currentSegment)) {
+                    segmentIds.add(segmentId);
+                }
+            }
+        }
+        return segmentIds;
+    }
+
+    /**
+     * Reads a closed segment back into per-candidate vote counts.
+     * A torn trailing record from a crash mid-write is ignored.
+     */
+    public Map<Integer, Long> readSegment(String segmentId) throws IOException {
+        Map<Integer, Long> counts = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segmentPath(segmentId)));
+        while (buffer.remaining() >= Integer.BYTES) {
+            counts.merge(buffer.getInt(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    public void deleteSegment(String segmentId) throws IOException {
+        Files.deleteIfExists(segmentPath(segmentId));
+        ownSegments.remove(segmentId);
+    }
+
+    /**
+     * Whether the segment was written by this journal instance rather than left over from an earlier run.
+     */
+    public boolean isOwnSegment(String segmentId) {
+        return ownSegments.contains(segmentId);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void discardPartialRecord() {
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            // Leave the torn record at the end of a closed segment, where readSegment skips it
+            try {
+                channel.close();
+                openNewSegment();
+            } catch (IOException rotateFailed) {
+                System.err.println("✗ Cannot start a new vote journal segment: " + rotateFailed.getMessage());
+            }
+        }
+    }
+
+    private void openNewSegment() throws IOException {
+        currentSegment = UUID.randomUUID().toString();
+        ownSegments.add(currentSegment);
+        size = 0;
+        channel = FileChannel.open(segmentPath(currentSegment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(String segmentId) {
+        return directory.resolve(segmentId + SUFFIX);
+    }
+}
@@ -0,0 +1,28 @@
+package utils.interfaces;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out JDBC connections to the repository layer.
+ * Callers must close the returned connection, which gives it back to the provider.
+ */
+public interface ConnectionProvider {
+
+    Connection getConnection() throws SQLException;
+
+    /**
+     * A connection for queries that only read and can live with data that is slightly
+     * behind, such as listings; it may come from a replica. Defaults to getConnection().
+     */
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Most connections this provider will hand out at once.
+     */
+    int getMaxConnections();
+
+    void shutdown();
+}
@@ -0,0 +1,10 @@
+package utils.interfaces;
+
+/**
+ * One unit of controller or service work, throwing only E besides unchecked exceptions.
+ */
+@FunctionalInterface
+public interface Request<T, E extends Exception> {
+
+    T call() throws E;
+}